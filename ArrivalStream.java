@@ -0,0 +1,27 @@
+/**
+ * Unbounded source of arriving processes for {@link StreamingEngine}, in
+ * non-decreasing arrival order. Call advance() to move to the next process,
+ * then read its arrival time and burst.
+ */
+public interface ArrivalStream {
+    // False when the stream is exhausted
+    boolean advance();
+
+    int arrival();
+
+    // Total CPU time
+    int burst();
+
+    // CPU, I/O, CPU, ... times when the process does I/O, else null
+    default int[] bursts() {
+        return null;
+    }
+
+    default int nice() {
+        return 0;
+    }
+
+    default int priority() {
+        return 0;
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.*;
+
+/**
+ * Model of Linux's Completely Fair Scheduler. Every process accumulates
+ * virtual runtime, its CPU time scaled by NICE_0_WEIGHT / weight, and the
+ * process with the least virtual runtime runs next, so over time each gets
+ * CPU in proportion to the weight of its nice value.
+ *
+ * Instead of a fixed quantum, the target latency is shared out among the
+ * runnable processes by weight, but no slice is shorter than the minimum
+ * granularity (the period stretches to n * granularity when there are too
+ * many processes). Runnable processes are kept in an IndexedHeap keyed on
+ * virtual runtime, so picking and reinserting take O(log n).
+ *
+ * New processes start at the current minimum virtual runtime; processes
+ * waking from I/O get at most half a latency of credit for their sleep.
+ * Wakeup preemption is not modelled: a running process keeps the CPU until
+ * its slice ends. A process stolen by another core's instance starts there
+ * at that instance's minimum virtual runtime, as a migrated task would.
+ */
+public class CfsPolicy implements SchedulingPolicy {
+    public static final int DEFAULT_LATENCY = 24;
+    public static final int DEFAULT_MIN_GRANULARITY = 3;
+
+    // Linux's sched_prio_to_weight, nice -20 to 19; each step is about 10% CPU
+    private static final int[] NICE_WEIGHTS = {
+            88761, 71755, 56483, 46273, 36291,
+            29154, 23254, 18705, 14949, 11916,
+            9548, 7620, 6100, 4904, 3906,
+            3121, 2501, 1991, 1586, 1277,
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15,
+    };
+    private static final int NICE_0_WEIGHT = 1024;
+    // Virtual runtime is kept in 1/VRUNTIME_SCALE time units so weighted deltas stay exact enough
+    private static final long VRUNTIME_SCALE = 1 << 10;
+
+    private final int latency;
+    private final int minGranularity;
+    private IndexedHeap ready;
+    private ProcessTable table;
+    private long[] vruntime = new long[0];
+    private int[] dispatched = new int[0];  // remaining time of each running process when it was dispatched
+    private long minVruntime;
+    private long readyWeight;               // sum of the weights in the heap
+    private int selected = -1;              // last process selectNext handed out
+
+    public CfsPolicy() {
+        this(DEFAULT_LATENCY, DEFAULT_MIN_GRANULARITY);
+    }
+
+    public CfsPolicy(int latency, int minGranularity) {
+        if (latency <= 0 || minGranularity <= 0) {
+            throw new IllegalArgumentException("CFS latency and minimum granularity must be > 0");
+        }
+        if (minGranularity > latency) {
+            throw new IllegalArgumentException("CFS minimum granularity must not exceed the latency");
+        }
+        this.latency = latency;
+        this.minGranularity = minGranularity;
+    }
+
+    public static int weight(int nice) {
+        return NICE_WEIGHTS[nice - ProcessTable.MIN_NICE];
+    }
+
+    @Override
+    public String getName() {
+        return "CFS";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        // Least virtual runtime first; ties go to the earlier arrival, then table position
+        ready = new IndexedHeap(4, (a, b) -> {
+            int cmp = Integer.compare(table.arrival[a], table.arrival[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        vruntime = new long[table.size()];
+        dispatched = new int[table.size()];
+        minVruntime = 0;
+        readyWeight = 0;
+        selected = -1;
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        if (p >= vruntime.length) {
+            // Streaming tables grow while running
+            int capacity = Math.max(p + 1, 2 * vruntime.length);
+            vruntime = Arrays.copyOf(vruntime, capacity);
+            dispatched = Arrays.copyOf(dispatched, capacity);
+        }
+        vruntime[p] = minVruntime;
+        enqueue(p);
+    }
+
+    @Override
+    public void onWake(int p, int now) {
+        // Sleepers may fall behind by half a latency at most, so they run soon but cannot hog the CPU
+        vruntime[p] = Math.max(vruntime[p], minVruntime - latency * VRUNTIME_SCALE / 2);
+        enqueue(p);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return ready.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        int p = ready.poll();
+        readyWeight -= weight(table.nice(p));
+        minVruntime = Math.max(minVruntime, vruntime[p]);
+        selected = p;
+        return p;
+    }
+
+    // p's share of the scheduling period, by weight among the runnable processes
+    @Override
+    public int timeSlice(int p) {
+        if (p != selected) vruntime[p] = minVruntime;   // stolen from another instance's heap
+        selected = -1;
+        dispatched[p] = table.remaining[p];
+        int runnable = ready.size() + 1;
+        long period = Math.max(latency, (long) runnable * minGranularity);
+        long w = weight(table.nice(p));
+        long slice = period * w / (readyWeight + w);
+        return (int) Math.max(minGranularity, Math.min(slice, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        account(p, dispatched[p] - table.remaining[p]);
+        enqueue(p);
+    }
+
+    @Override
+    public void onComplete(int p, int now) {
+        account(p, dispatched[p]);
+    }
+
+    @Override
+    public void onBlock(int p, int now) {
+        // remaining already holds the next CPU burst; the whole dispatched burst ran
+        account(p, dispatched[p]);
+    }
+
+    private void account(int p, int ran) {
+        vruntime[p] += (long) ran * VRUNTIME_SCALE * NICE_0_WEIGHT / weight(table.nice(p));
+    }
+
+    private void enqueue(int p) {
+        ready.add(p, vruntime[p]);
+        readyWeight += weight(table.nice(p));
+    }
+}
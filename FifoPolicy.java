@@ -0,0 +1,43 @@
+public class FifoPolicy implements SchedulingPolicy {
+    private final IntRingBuffer queue = new IntRingBuffer();
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        queue.clear();
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        queue.add(p);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return queue.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        return queue.poll();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        queue.add(p);
+    }
+}
@@ -0,0 +1,66 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Streams the timeline to a CSV file ("pid,start,end" per line) as the run
+ * goes, so memory use does not depend on how long the timeline is. Adjacent
+ * slices of the same process are merged before they are written.
+ */
+public class FileTimelineSink implements TimelineSink, Closeable {
+    private final ProcessTable table;
+    private final Writer out;
+    private int pendingPid;
+    private int pendingStart;
+    private int pendingEnd = -1;
+
+    public FileTimelineSink(Path file, ProcessTable table) throws IOException {
+        this.table = table;
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        out.write("pid,start,end\n");
+    }
+
+    @Override
+    public void slice(int p, int start, int end) {
+        if (p == pendingPid && start == pendingEnd) {
+            pendingEnd = end;
+            return;
+        }
+        writePending();
+        pendingPid = p;
+        pendingStart = start;
+        pendingEnd = end;
+    }
+
+    @Override
+    public void finish() {
+        writePending();
+        pendingEnd = -1;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void writePending() {
+        if (pendingEnd < 0) return;
+        try {
+            out.write(pendingPid == IDLE ? Scheduler.IDLE_PID
+                    : pendingPid == SWITCH ? Scheduler.SWITCH_PID : table.pid(pendingPid));
+            out.write(',');
+            out.write(Integer.toString(pendingStart));
+            out.write(',');
+            out.write(Integer.toString(pendingEnd));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
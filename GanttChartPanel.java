@@ -0,0 +1,471 @@
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import javax.swing.*;
+
+/**
+ * Gantt chart for timelines of any length. Meant to sit in a JScrollPane:
+ * the mouse wheel zooms around the cursor and dragging pans.
+ *
+ * Only what is inside the clip is painted. Visible blocks are found by binary
+ * search over the lane's (time-ordered) timeline, and when there are more
+ * visible blocks than pixels the lane is drawn as a utilization band instead,
+ * one column per pixel, from prefix sums of busy time.
+ *
+ * The chart is rasterized in fixed-size tiles on a background thread and
+ * kept in a small LRU cache, so repaints (scrolling, resizing, exposure) just
+ * copy images. Tiles belong to one View, the immutable data-plus-zoom state;
+ * a new timeline or zoom level makes a new View and drops the cache.
+ */
+class GanttChartPanel extends JPanel implements Scrollable {
+    private static final int X_START = 50;
+    private static final int TOP = 10;
+    private static final int LANE_HEIGHT = 50;
+    private static final int COMPACT_LANE_HEIGHT = 24;  // used above COMPACT_LANES lanes
+    private static final int COMPACT_LANES = 4;
+    private static final int LANE_GAP = 10;
+    private static final int AXIS_HEIGHT = 30;
+    private static final double DEFAULT_SCALE = 30;     // pixels per time unit
+    private static final double MAX_WIDTH = 1 << 30;    // keeps pixel math inside int range
+    private static final int TILE_SIZE = 256;
+    private static final int MAX_TILES = 64;
+
+    private static final Color[] COLORS = {Color.RED, Color.BLUE, Color.GREEN, Color.ORANGE, Color.MAGENTA, Color.CYAN};
+    private static final Color IDLE_COLOR = Color.LIGHT_GRAY;
+    private static final Color SWITCH_COLOR = Color.DARK_GRAY;
+    private static final Color BAND_COLOR = new Color(0x2196F3);
+
+    private static final ExecutorService RENDERER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "gantt-tiles");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Touched on the EDT only; render tasks hand their tiles back through invokeLater
+    // Keyed by tileKey(col, row)
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+    private final Set<Long> pending = new HashSet<>();
+
+    private volatile View view = new View(Collections.emptyList(), DEFAULT_SCALE);
+    private boolean fitPending;
+    private Point dragOrigin;
+
+    // One row of the chart: a timeline plus the busy-time prefix sums for the bands
+    private static class Lane {
+        final String label;
+        final RleTimeline timeline;
+        final IntFunction<String> names;
+        final long[] busyBefore;    // busy time before block i
+
+        Lane(String label, RleTimeline timeline, IntFunction<String> names) {
+            this.label = label;
+            this.timeline = timeline;
+            this.names = names;
+            busyBefore = new long[timeline.size() + 1];
+            for (int i = 0; i < timeline.size(); i++) {
+                long busy = timeline.pid(i) < 0 ? 0 : timeline.end(i) - timeline.start(i);
+                busyBefore[i + 1] = busyBefore[i] + busy;
+            }
+        }
+
+        // First block that ends after t
+        int firstEndingAfter(double t) {
+            int lo = 0, hi = timeline.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timeline.end(mid) <= t) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // Busy time in [0, t)
+        double busyUntil(double t) {
+            int i = firstEndingAfter(t);
+            if (i >= timeline.size()) return busyBefore[timeline.size()];
+            double partial = 0;
+            if (timeline.pid(i) >= 0 && t > timeline.start(i)) partial = t - timeline.start(i);
+            return busyBefore[i] + partial;
+        }
+    }
+
+    // What is drawn and at which zoom; immutable so tiles can be rendered off the EDT
+    private static class View {
+        final List<Lane> lanes;
+        final int endTime;
+        final double scale;
+        final int laneHeight;
+
+        View(List<Lane> lanes, double scale) {
+            this.lanes = lanes;
+            this.scale = scale;
+            laneHeight = lanes.size() > COMPACT_LANES ? COMPACT_LANE_HEIGHT : LANE_HEIGHT;
+            int end = 0;
+            for (Lane lane : lanes) {
+                if (lane.timeline.size() > 0) end = Math.max(end, lane.timeline.end(lane.timeline.size() - 1));
+            }
+            endTime = end;
+        }
+
+        View withScale(double scale) {
+            return new View(lanes, scale);
+        }
+
+        int width() {
+            return (int) Math.min(Integer.MAX_VALUE / 2, X_START + Math.ceil(endTime * scale) + 40);
+        }
+
+        int height() {
+            return TOP + Math.max(1, lanes.size()) * (laneHeight + LANE_GAP) + AXIS_HEIGHT;
+        }
+
+        int x(double t) {
+            return (int) Math.round(X_START + t * scale);
+        }
+
+        void paint(Graphics2D g2, Rectangle clip) {
+            double t0 = Math.max(0, (clip.x - X_START) / scale);
+            double t1 = Math.min(endTime, (clip.x + clip.width - X_START) / scale);
+
+            for (int l = 0; l < lanes.size(); l++) {
+                int y = TOP + l * (laneHeight + LANE_GAP);
+                if (y > clip.y + clip.height || y + laneHeight < clip.y) continue;
+                Lane lane = lanes.get(l);
+                if (lanes.size() > 1) {
+                    g2.setColor(Color.BLACK);
+                    g2.drawString(shortLabel(lane.label, g2.getFontMetrics()), 4, y + laneHeight / 2 + 5);
+                }
+                if (t1 <= t0) continue;
+
+                int from = lane.firstEndingAfter(t0);
+                int to = lane.firstEndingAfter(t1);
+                if (to < lane.timeline.size()) to++;
+                if (to - from > clip.width) {
+                    paintBand(g2, lane, clip, y);
+                } else {
+                    paintBlocks(g2, lane, from, to, y);
+                }
+            }
+            paintAxis(g2, TOP + lanes.size() * (laneHeight + LANE_GAP), t0, t1);
+        }
+
+        private void paintBlocks(Graphics2D g2, Lane lane, int from, int to, int y) {
+            FontMetrics metrics = g2.getFontMetrics();
+            for (int i = from; i < to; i++) {
+                int p = lane.timeline.pid(i);
+                int x0 = x(lane.timeline.start(i));
+                int x1 = x(lane.timeline.end(i));
+                int width = Math.max(1, x1 - x0);
+                g2.setColor(p == TimelineSink.IDLE ? IDLE_COLOR
+                        : p == TimelineSink.SWITCH ? SWITCH_COLOR : COLORS[p % COLORS.length]);
+                g2.fillRect(x0, y, width, laneHeight);
+                if (width >= 4) {
+                    g2.setColor(Color.BLACK);
+                    g2.drawRect(x0, y, width, laneHeight);
+                }
+                String label = lane.names.apply(p);
+                int labelWidth = metrics.stringWidth(label);
+                if (labelWidth + 4 <= width) {
+                    g2.setColor(Color.BLACK);
+                    g2.drawString(label, x0 + (width - labelWidth) / 2, y + laneHeight / 2 + 5);
+                }
+            }
+        }
+
+        // Zoomed out: each pixel column shows the fraction of its time span the CPU was busy
+        private void paintBand(Graphics2D g2, Lane lane, Rectangle clip, int y) {
+            int left = Math.max(clip.x, X_START);
+            int right = Math.min(clip.x + clip.width, x(endTime));
+            g2.setColor(IDLE_COLOR);
+            g2.fillRect(left, y, right - left, laneHeight);
+            g2.setColor(BAND_COLOR);
+            double before = lane.busyUntil(Math.max(0, (clip.x - X_START) / scale));
+            for (int x = clip.x; x < clip.x + clip.width; x++) {
+                double tA = (x - X_START) / scale;
+                double tB = (x + 1 - X_START) / scale;
+                if (tB <= 0 || tA >= endTime) continue;
+                double after = lane.busyUntil(Math.min(endTime, tB));
+                double busy = (after - before) / (Math.min(endTime, tB) - Math.max(0, tA));
+                before = after;
+                int height = (int) Math.round(Math.min(1, busy) * laneHeight);
+                if (height > 0) g2.fillRect(x, y + laneHeight - height, 1, height);
+            }
+            g2.setColor(Color.BLACK);
+            g2.drawRect(left, y, right - left, laneHeight);
+        }
+
+        // Time axis with ticks at 1, 2 or 5 times a power of ten, spaced wider than the labels
+        private void paintAxis(Graphics2D g2, int y, double t0, double t1) {
+            int spacing = Math.max(40, g2.getFontMetrics().stringWidth(String.valueOf(endTime)) + 20);
+            double step = 1;
+            while (step * scale < spacing) {
+                if (step * 2 * scale >= spacing) { step *= 2; break; }
+                if (step * 5 * scale >= spacing) { step *= 5; break; }
+                step *= 10;
+            }
+            g2.setColor(Color.BLACK);
+            // Start one step early so labels straddling the left edge are drawn too
+            long first = (long) (Math.floor(t0 / step) * step - step);
+            for (long t = first; t <= t1 + step; t += (long) step) {
+                if (t < 0 || t > endTime) continue;
+                int x = x(t);
+                g2.drawLine(x, y - LANE_GAP, x, y - LANE_GAP + 4);
+                g2.drawString(String.valueOf(t), x, y + 10);
+            }
+            if (t1 >= endTime && endTime % (long) step != 0 && (endTime % (long) step) * scale >= spacing - 16) {
+                g2.drawString(String.valueOf(endTime), x(endTime), y + 10);
+            }
+        }
+
+        // Draws the tile whose top left corner is at (col, row) * TILE_SIZE
+        BufferedImage renderTile(int col, int row, Font font) {
+            BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = image.createGraphics();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2.setColor(Color.WHITE);
+                g2.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+                g2.setFont(font);
+                Rectangle area = new Rectangle(col * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+                g2.translate(-area.x, -area.y);
+                g2.setClip(area);
+                paint(g2, area);
+            } finally {
+                g2.dispose();
+            }
+            return image;
+        }
+    }
+
+    GanttChartPanel() {
+        setBackground(Color.WHITE);
+        setToolTipText("");
+
+        addMouseWheelListener(e -> zoom(e.getPreciseWheelRotation() < 0 ? 1.25 : 0.8, e.getX()));
+
+        MouseAdapter pan = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragOrigin = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                JViewport viewport = viewport();
+                if (viewport == null || dragOrigin == null) return;
+                Point view = viewport.getViewPosition();
+                view.translate(dragOrigin.x - e.getX(), dragOrigin.y - e.getY());
+                scrollTo(viewport, view);
+            }
+        };
+        addMouseListener(pan);
+        addMouseMotionListener(pan);
+    }
+
+    public void setTimeline(SimulationResult result) {
+        List<Lane> lanes = new ArrayList<>();
+        if (result != null && result.getTimeline() != null) {
+            lanes.add(new Lane("CPU", result.getTimeline(), result::pid));
+        }
+        setView(new View(lanes, DEFAULT_SCALE));
+        fitPending = true;
+    }
+
+    // One lane per core
+    public void setTimelines(MultiCoreResult result) {
+        List<Lane> lanes = new ArrayList<>();
+        for (int c = 0; c < result.cpus(); c++) {
+            if (result.getLane(c) != null) {
+                lanes.add(new Lane("CPU" + c, result.getLane(c), result.getResult()::pid));
+            }
+        }
+        setView(new View(lanes, DEFAULT_SCALE));
+        fitPending = true;
+    }
+
+    // One lane per run, e.g. the policies of a comparison, all on the same time axis
+    public void setTimelines(List<String> labels, List<SimulationResult> results) {
+        List<Lane> lanes = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            SimulationResult result = results.get(i);
+            if (result != null && result.getTimeline() != null) {
+                lanes.add(new Lane(labels.get(i), result.getTimeline(), result::pid));
+            }
+        }
+        setView(new View(lanes, DEFAULT_SCALE));
+        fitPending = true;
+    }
+
+    // Labels wider than the margin lose words to initials ("Round Robin" is "RR"), then characters
+    private static String shortLabel(String label, FontMetrics metrics) {
+        int room = X_START - 6;
+        if (metrics.stringWidth(label) <= room) return label;
+        String[] words = label.trim().split("\\s+");
+        if (words.length > 1) {
+            StringBuilder initials = new StringBuilder();
+            for (String word : words) initials.append(word.charAt(0));
+            label = initials.toString();
+        }
+        while (label.length() > 1 && metrics.stringWidth(label) > room) label = label.substring(0, label.length() - 1);
+        return label;
+    }
+
+    public void clear() {
+        setView(new View(Collections.emptyList(), DEFAULT_SCALE));
+    }
+
+    // The only place the view changes, so the only place tiles are thrown away
+    private void setView(View newView) {
+        view = newView;
+        tiles.clear();
+        pending.clear();
+        revalidate();
+        repaint();
+    }
+
+    // Multiplies the scale, keeping the time under pixel x where it is on screen
+    private void zoom(double factor, int x) {
+        View current = view;
+        if (current.endTime == 0) return;
+        double minScale = Math.min(DEFAULT_SCALE, visibleWidth() / (double) current.endTime);
+        double maxScale = Math.max(minScale, Math.min(200, MAX_WIDTH / current.endTime));
+        double newScale = Math.max(minScale, Math.min(maxScale, current.scale * factor));
+        if (newScale == current.scale) return;
+
+        double t = (x - X_START) / current.scale;
+        JViewport viewport = viewport();
+        int offset = viewport == null ? 0 : x - viewport.getViewPosition().x;
+        setView(current.withScale(newScale));
+        if (viewport != null) {
+            int newX = (int) Math.round(X_START + t * newScale) - offset;
+            viewport.validate();
+            scrollTo(viewport, new Point(newX, viewport.getViewPosition().y));
+        }
+    }
+
+    private void scrollTo(JViewport viewport, Point view) {
+        Dimension extent = viewport.getExtentSize();
+        Dimension size = getPreferredSize();
+        view.x = Math.max(0, Math.min(view.x, size.width - extent.width));
+        view.y = Math.max(0, Math.min(view.y, size.height - extent.height));
+        viewport.setViewPosition(view);
+    }
+
+    private JViewport viewport() {
+        Container parent = getParent();
+        return parent instanceof JViewport ? (JViewport) parent : null;
+    }
+
+    private int visibleWidth() {
+        JViewport viewport = viewport();
+        int width = viewport != null ? viewport.getExtentSize().width : getWidth();
+        return Math.max(1, width - X_START - 20);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        View current = view;
+        return new Dimension(current.width(), current.height());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        View current = view;
+        if (current.lanes.isEmpty() || current.endTime == 0) return;
+
+        if (fitPending) {
+            // Long timelines start zoomed out to fit the view
+            fitPending = false;
+            if (current.endTime * current.scale > visibleWidth()) {
+                setView(current.withScale(Math.max(visibleWidth() / (double) current.endTime, 1e-9)));
+                return;
+            }
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int firstCol = Math.max(0, clip.x / TILE_SIZE);
+        int lastCol = Math.min((current.width() - 1) / TILE_SIZE, (clip.x + clip.width - 1) / TILE_SIZE);
+        int firstRow = Math.max(0, clip.y / TILE_SIZE);
+        int lastRow = Math.min((current.height() - 1) / TILE_SIZE, (clip.y + clip.height - 1) / TILE_SIZE);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                BufferedImage tile = tiles.get(tileKey(col, row));
+                if (tile != null) {
+                    g.drawImage(tile, col * TILE_SIZE, row * TILE_SIZE, null);
+                } else {
+                    requestTile(current, col, row);
+                }
+            }
+        }
+    }
+
+    private static long tileKey(int col, int row) {
+        return (long) row << 32 | col;
+    }
+
+    // Renders a missing tile in the background and repaints its area once it is in the cache
+    private void requestTile(View source, int col, int row) {
+        long key = tileKey(col, row);
+        if (!pending.add(key)) return;
+        Font font = getFont();
+        RENDERER.execute(() -> {
+            if (view != source) return; // zoomed or replaced while queued
+            BufferedImage image = source.renderTile(col, row, font);
+            SwingUtilities.invokeLater(() -> {
+                if (view != source) return;
+                pending.remove(key);
+                tiles.put(key, image);
+                repaint(col * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+            });
+        });
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        View current = view;
+        int l = (e.getY() - TOP) / (current.laneHeight + LANE_GAP);
+        if (l < 0 || l >= current.lanes.size()) return null;
+        Lane lane = current.lanes.get(l);
+        double t = (e.getX() - X_START) / current.scale;
+        int i = lane.firstEndingAfter(t);
+        if (t < 0 || i >= lane.timeline.size() || lane.timeline.start(i) > t) return null;
+        String block = lane.names.apply(lane.timeline.pid(i)) + " [" + lane.timeline.start(i) + ", " + lane.timeline.end(i) + ")";
+        return current.lanes.size() > 1 ? lane.label + ": " + block : block;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(800, 120);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? 30 : view.laneHeight + LANE_GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visible.width - 30 : visible.height;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
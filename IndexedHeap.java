@@ -0,0 +1,127 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Min-heap of int items (process indices) with long keys, smallest key
+ * first and, on equal keys, the lower item first unless a tie-break is
+ * given. It is d-ary, which makes it
+ * shallower than a binary heap and keeps sift-down scans in one cache line,
+ * and indexed: every item's position is tracked, so contains() is O(1) and
+ * the key of a queued item can be lowered in O(log n) with decreaseKey().
+ */
+public class IndexedHeap {
+    private final int arity;
+    private final IntBinaryOperator ties;   // compares two items with equal keys, or null
+    private int[] heap = new int[16];
+    private long[] keys = new long[0];      // by item
+    private int[] position = new int[0];    // by item: index in heap, or -1
+    private int size;
+
+    public IndexedHeap() {
+        this(4);
+    }
+
+    public IndexedHeap(int arity) {
+        this(arity, null);
+    }
+
+    public IndexedHeap(int arity, IntBinaryOperator ties) {
+        if (arity < 2) throw new IllegalArgumentException("Heap arity must be >= 2");
+        this.arity = arity;
+        this.ties = ties;
+    }
+
+    public void add(int item, long key) {
+        if (item >= position.length) {
+            int capacity = Math.max(item + 1, 2 * position.length);
+            int old = position.length;
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, old, capacity, -1);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        if (position[item] >= 0) throw new IllegalArgumentException("Item " + item + " is already queued");
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        keys[item] = key;
+        siftUp(size++, item);
+    }
+
+    public boolean contains(int item) {
+        return item < position.length && position[item] >= 0;
+    }
+
+    // Key of a queued item
+    public long key(int item) {
+        return keys[item];
+    }
+
+    // Lowers the key of a queued item; a larger key is rejected
+    public void decreaseKey(int item, long key) {
+        if (!contains(item)) throw new NoSuchElementException("Item " + item + " is not queued");
+        if (key > keys[item]) throw new IllegalArgumentException("Key can only decrease");
+        keys[item] = key;
+        siftUp(position[item], item);
+    }
+
+    public int peek() {
+        if (size == 0) throw new NoSuchElementException("Heap is empty");
+        return heap[0];
+    }
+
+    public int poll() {
+        int first = peek();
+        position[first] = -1;
+        int last = heap[--size];
+        if (size > 0) siftDown(0, last);
+        return first;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i, int item) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            if (!before(item, heap[parent])) break;
+            place(i, heap[parent]);
+            i = parent;
+        }
+        place(i, item);
+    }
+
+    private void siftDown(int i, int item) {
+        while (true) {
+            int first = arity * i + 1;
+            if (first >= size) break;
+            int best = first;
+            int end = Math.min(first + arity, size);
+            for (int child = first + 1; child < end; child++) {
+                if (before(heap[child], heap[best])) best = child;
+            }
+            if (!before(heap[best], item)) break;
+            place(i, heap[best]);
+            i = best;
+        }
+        place(i, item);
+    }
+
+    private void place(int i, int item) {
+        heap[i] = item;
+        position[item] = i;
+    }
+
+    private boolean before(int a, int b) {
+        if (keys[a] != keys[b]) return keys[a] < keys[b];
+        return ties == null ? a < b : ties.applyAsInt(a, b) < 0;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue of ints in a circular array, used for the run queues. Nothing
+ * is allocated per element; the array doubles when full and is kept across
+ * clear(), so a warmed-up queue does not allocate at all.
+ */
+public class IntRingBuffer {
+    private int[] elements;
+    private int head;   // index of the first element
+    private int size;
+
+    public IntRingBuffer() {
+        this(16);
+    }
+
+    public IntRingBuffer(int capacity) {
+        elements = new int[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) grow(size + 1);
+        elements[(head + size++) & (elements.length - 1)] = value;
+    }
+
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException("Queue is empty");
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    public int peek() {
+        if (size == 0) throw new NoSuchElementException("Queue is empty");
+        return elements[head];
+    }
+
+    // Appends all of other's elements in order and empties other
+    public void drainFrom(IntRingBuffer other) {
+        int count = other.size;
+        if (count == 0) return;
+        if (size + count > elements.length) grow(size + count);
+        int mask = elements.length - 1;
+        int from = other.head;
+        int remaining = count;
+        while (remaining > 0) {
+            // Longest run that is contiguous in both arrays
+            int to = (head + size) & mask;
+            int run = Math.min(remaining, Math.min(other.elements.length - from, elements.length - to));
+            System.arraycopy(other.elements, from, elements, to, run);
+            from = (from + run) & (other.elements.length - 1);
+            size += run;
+            remaining -= run;
+        }
+        other.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Unrolls the elements to the front of a larger array
+    private void grow(int minCapacity) {
+        int capacity = elements.length;
+        while (capacity < minCapacity) {
+            if (capacity >= 1 << 30) throw new IllegalStateException("Queue is too large");
+            capacity <<= 1;
+        }
+        int[] grown = new int[capacity];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+        elements = grown;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) values[i] = elements[(head + i) & (elements.length - 1)];
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.Arrays;
+
+/**
+ * Pending I/O completions: a binary min-heap of (time, process) pairs in two
+ * parallel int arrays, earliest time first and the lower process index first
+ * on equal times, so wake-ups happen in a deterministic order.
+ */
+class IoQueue {
+    private int[] times = new int[16];
+    private int[] processes = new int[16];
+    private int size;
+
+    void add(int time, int p) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            processes = Arrays.copyOf(processes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(time, p, times[parent], processes[parent])) break;
+            times[i] = times[parent];
+            processes[i] = processes[parent];
+            i = parent;
+        }
+        times[i] = time;
+        processes[i] = p;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Time of the earliest completion; the queue must not be empty
+    int peekTime() {
+        return times[0];
+    }
+
+    // Removes the earliest completion and returns its process
+    int poll() {
+        int p = processes[0];
+        int time = times[--size];
+        int last = processes[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(times[child + 1], processes[child + 1], times[child], processes[child])) child++;
+            if (!before(times[child], processes[child], time, last)) break;
+            times[i] = times[child];
+            processes[i] = processes[child];
+            i = child;
+        }
+        times[i] = time;
+        processes[i] = last;
+        return p;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private static boolean before(int timeA, int a, int timeB, int b) {
+        return timeA < timeB || (timeA == timeB && a < b);
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative int values in log-spaced buckets, in the style of
+ * HdrHistogram: values below 256 are counted exactly, larger ones in 128
+ * sub-buckets per power of two, so any percentile is within 1% of the true
+ * value. The bucket array has a fixed size (about 25 KB), recording never
+ * allocates, and histograms of separate runs can be added together.
+ */
+public class LogHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (31 - SUB_BITS + 1) * SUB_BUCKETS;
+    // Heap bytes of one histogram, mostly the bucket array
+    static final long FOOTPRINT = 8L * BUCKETS + 64;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max;
+
+    public void record(int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    // Adds other's counts to this histogram
+    public void add(LogHistogram other) {
+        if (other.count == 0) return;
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Integer.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public int min() {
+        return count == 0 ? 0 : min;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    /**
+     * Smallest recorded value v (to bucket precision) such that pct percent
+     * of the values are <= v; 0 for an empty histogram.
+     */
+    public int percentile(double pct) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(pct / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, Math.max(min, highestValue(i)));
+        }
+        return max;
+    }
+
+    private static int index(int value) {
+        if (value < 2 * SUB_BUCKETS) return value;
+        int shift = 31 - Integer.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Largest value that falls into bucket i
+    private static int highestValue(int i) {
+        if (i < 2 * SUB_BUCKETS) return i;
+        int shift = i / SUB_BUCKETS - 1;
+        long lowest = (long) (i % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return (int) Math.min(Integer.MAX_VALUE, lowest + (1L << shift) - 1);
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.*;
+
+/**
+ * Multi-level feedback queue with any number of levels. New processes enter
+ * level 0, a process that uses up its quantum drops one level, and with a
+ * boost interval every process is moved back to level 0 once per interval so
+ * long jobs cannot starve.
+ *
+ * Non-empty levels are tracked in a two-level bitmap (one summary word over
+ * up to 64 words of 64 levels), so picking the highest non-empty level takes
+ * two numberOfTrailingZeros calls whatever the depth. A boost appends the
+ * lower queues to level 0 without touching each process: a process whose
+ * level was set before the latest boost is at level 0, and its entry in the
+ * table is corrected when it is next dispatched.
+ */
+public class MlfqPolicy implements SchedulingPolicy {
+    public static final int MAX_LEVELS = 64 * 64;
+
+    private final int[] quanta;
+    private final int boostInterval;
+    private final IntRingBuffer[] queues;
+    private final long[] nonEmpty;      // bit l % 64 of word l / 64: level l has processes
+    private long nonEmptyWords;         // bit w: nonEmpty[w] != 0
+    private int ready;
+    private ProcessTable table;
+    private int currentPeriod;          // table.boostPeriods() holds the period each process's level was set in
+    private long[] demotions;           // per level, this run; only counted for SchedulerStats
+
+    public MlfqPolicy(int[] quanta) {
+        this(quanta, 0);
+    }
+
+    // boostInterval 0 disables the boost
+    public MlfqPolicy(int[] quanta, int boostInterval) {
+        if (quanta == null || quanta.length == 0) {
+            throw new IllegalArgumentException("MLFQ needs at least one queue.");
+        }
+        if (quanta.length > MAX_LEVELS) {
+            throw new IllegalArgumentException("MLFQ supports at most " + MAX_LEVELS + " levels");
+        }
+        for (int q : quanta) {
+            if (q <= 0) throw new IllegalArgumentException("MLFQ quanta must be > 0");
+        }
+        if (boostInterval < 0) throw new IllegalArgumentException("MLFQ boost interval must be >= 0");
+        this.quanta = quanta.clone();
+        this.boostInterval = boostInterval;
+        this.nonEmpty = new long[(quanta.length + 63) / 64];
+        this.queues = new IntRingBuffer[quanta.length];
+        for (int i = 0; i < quanta.length; i++) queues[i] = new IntRingBuffer();
+    }
+
+    @Override
+    public String getName() {
+        return "MLFQ";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        for (IntRingBuffer queue : queues) queue.clear();
+        Arrays.fill(nonEmpty, 0);
+        nonEmptyWords = 0;
+        ready = 0;
+        currentPeriod = 0;
+        demotions = SchedulerStats.ENABLED ? new long[quanta.length] : null;
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        enqueue(p, 0);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return ready > 0;
+    }
+
+    @Override
+    public int readyCount() {
+        return ready;
+    }
+
+    @Override
+    public int selectNext(int now) {
+        boostIfDue(now);
+        if (ready == 0) throw new IllegalStateException("No process is ready");
+        int word = Long.numberOfTrailingZeros(nonEmptyWords);
+        int level = word * 64 + Long.numberOfTrailingZeros(nonEmpty[word]);
+        IntRingBuffer queue = queues[level];
+        int p = queue.poll();
+        if (queue.isEmpty()) markEmpty(level);
+        ready--;
+        if (boostInterval > 0 && table.boostPeriods()[p] < currentPeriod) {
+            // Boosted while waiting
+            table.level[p] = 0;
+            table.boostPeriods()[p] = currentPeriod;
+        }
+        return p;
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return quanta[table.level[p]];
+    }
+
+    // Processes that dropped from each level this run; SchedulerStats adds them up
+    long[] demotions() {
+        return demotions;
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        boostIfDue(now);
+        if (boostInterval > 0 && table.boostPeriods()[p] < currentPeriod) {
+            // A boost happened while p was running
+            enqueue(p, 0);
+        } else {
+            int level = table.level[p];
+            if (SchedulerStats.ENABLED && level + 1 < queues.length) demotions[level]++;
+            enqueue(p, Math.min(level + 1, queues.length - 1));
+        }
+    }
+
+    // Gave up the CPU before its quantum ran out, so it keeps its level
+    @Override
+    public void onWake(int p, int now) {
+        boostIfDue(now);
+        enqueue(p, boostInterval > 0 && table.boostPeriods()[p] < currentPeriod ? 0 : table.level[p]);
+    }
+
+    /*
+     * Boosts happen at the first decision in each new boost period; higher
+     * levels stay ahead of lower ones. Periods are derived from the clock, so
+     * the per-core instances of the multi-core engine, which share the table,
+     * agree on them.
+     */
+    private void boostIfDue(int now) {
+        if (boostInterval == 0 || now / boostInterval == currentPeriod) return;
+        currentPeriod = now / boostInterval;
+        IntRingBuffer top = queues[0];
+        while (nonEmptyWords != 0) {
+            int word = Long.numberOfTrailingZeros(nonEmptyWords);
+            int level = word * 64 + Long.numberOfTrailingZeros(nonEmpty[word]);
+            markEmpty(level);
+            if (level != 0) {
+                top.drainFrom(queues[level]);
+            }
+        }
+        if (!top.isEmpty()) markNonEmpty(0);
+    }
+
+    private void enqueue(int p, int level) {
+        table.level[p] = level;
+        if (boostInterval > 0) table.boostPeriods()[p] = currentPeriod;
+        queues[level].add(p);
+        markNonEmpty(level);
+        ready++;
+    }
+
+    private void markNonEmpty(int level) {
+        nonEmpty[level >>> 6] |= 1L << level;
+        nonEmptyWords |= 1L << (level >>> 6);
+    }
+
+    private void markEmpty(int level) {
+        int word = level >>> 6;
+        nonEmpty[word] &= ~(1L << level);
+        if (nonEmpty[word] == 0) nonEmptyWords &= ~(1L << word);
+    }
+}
@@ -0,0 +1,237 @@
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * Discrete-event loop for a machine with several identical CPUs. Like
+ * {@link SimulationEngine}, time only moves at events, here the earliest
+ * slice end on any core or the next arrival.
+ *
+ * How ready processes are spread over the cores depends on {@link Balancing}:
+ * <ul>
+ *   <li>GLOBAL: one policy instance (one ready set) shared by all cores.</li>
+ *   <li>PARTITIONED: one policy instance per core; arrivals are dealt to the
+ *       cores in turn and never leave them.</li>
+ *   <li>WORK_STEALING: partitioned, but a core whose own queue is empty takes
+ *       the next process of the core with the most ready processes.</li>
+ * </ul>
+ * A process dispatched on a different core than its previous slice counts as
+ * a migration of the core it moves to. With one CPU every mode gives the same
+ * schedule as SimulationEngine.
+ */
+public class MultiCoreEngine {
+    public enum Balancing {
+        GLOBAL("Global queue"),
+        PARTITIONED("Partitioned"),
+        WORK_STEALING("Work stealing");
+
+        private final String label;
+
+        Balancing(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        // Accepts the label or the constant name, in any case; '-' and ' ' match '_'
+        public static Balancing parse(String name) {
+            String key = name.trim().replace('-', '_').replace(' ', '_');
+            for (Balancing b : values()) {
+                if (b.name().equalsIgnoreCase(key) || b.label.equalsIgnoreCase(name.trim())) return b;
+            }
+            throw new IllegalArgumentException("Unknown balancing \"" + name + "\". Known: " + Arrays.toString(values()));
+        }
+    }
+
+    // Events between two progress reports / cancellation checks
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final int cpus;
+    private final Balancing balancing;
+    private final SimulationMonitor monitor;
+
+    public MultiCoreEngine(int cpus, Balancing balancing) {
+        this(cpus, balancing, SimulationMonitor.NONE);
+    }
+
+    public MultiCoreEngine(int cpus, Balancing balancing, SimulationMonitor monitor) {
+        if (cpus <= 0) throw new IllegalArgumentException("Number of CPUs must be > 0");
+        this.cpus = cpus;
+        this.balancing = balancing;
+        this.monitor = monitor;
+    }
+
+    public int cpus() {
+        return cpus;
+    }
+
+    public Balancing getBalancing() {
+        return balancing;
+    }
+
+    // Keeps one run-length encoded timeline per core
+    public MultiCoreResult run(ProcessTable table, Supplier<SchedulingPolicy> policies) {
+        RleTimeline[] lanes = new RleTimeline[cpus];
+        for (int c = 0; c < cpus; c++) lanes[c] = new RleTimeline();
+        return run(table, policies, lanes, lanes);
+    }
+
+    // Streams core c's timeline to sinks[c]; the result carries no timelines
+    public MultiCoreResult run(ProcessTable table, Supplier<SchedulingPolicy> policies, TimelineSink[] sinks) {
+        if (sinks.length != cpus) throw new IllegalArgumentException("Need one timeline sink per CPU");
+        return run(table, policies, sinks, null);
+    }
+
+    private MultiCoreResult run(ProcessTable workload, Supplier<SchedulingPolicy> policies,
+                                TimelineSink[] sinks, RleTimeline[] lanes) {
+        if (workload.hasIo()) throw new IllegalArgumentException("I/O bursts are only simulated on one CPU");
+        ProcessTable table = workload.forRun();
+        SchedulingPolicy[] queues = new SchedulingPolicy[balancing == Balancing.GLOBAL ? 1 : cpus];
+        for (int q = 0; q < queues.length; q++) {
+            queues[q] = policies.get();
+            queues[q].reset(table);
+        }
+        boolean preemptive = queues[0].isPreemptive();
+
+        int[] order = table.arrivalOrder();
+        int n = order.length;
+        int[] completionOrder = new int[n];
+        int[] lastCore = new int[n];
+        Arrays.fill(lastCore, -1);
+
+        int[] running = new int[cpus];
+        int[] lastRun = new int[cpus];
+        Arrays.fill(lastRun, -1);
+        long switches = 0;
+        int[] sliceEnd = new int[cpus];
+        int[] laneEnd = new int[cpus];
+        Arrays.fill(running, -1);
+        long[] busy = new long[cpus];
+        int[] dispatches = new int[cpus];
+        int[] migrations = new int[cpus];
+        int[] steals = new int[cpus];
+
+        // One probe for the whole machine; idle time is summed over the cores
+        SchedulerStats.Probe probe = SchedulerStats.ENABLED ? SchedulerStats.start(queues[0].getName(), queues) : null;
+        int now = 0, next = 0, completed = 0, dealt = 0;
+        int untilCheck = CHECK_INTERVAL;
+        while (completed < n) {
+            if (--untilCheck == 0) {
+                untilCheck = CHECK_INTERVAL;
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                monitor.progress(now, completed, n);
+                if (SchedulerStats.ENABLED) probe.publish();
+            }
+
+            // Arrivals first, then the slices that end now, as in the single-CPU loop
+            while (next < n && table.arrival[order[next]] <= now) {
+                int home = queues.length == 1 ? 0 : dealt++ % queues.length;
+                queues[home].onArrival(order[next++], now);
+            }
+            for (int c = 0; c < cpus; c++) {
+                int p = running[c];
+                if (p < 0 || sliceEnd[c] != now) continue;
+                running[c] = -1;
+                if (table.remaining[p] > 0) {
+                    queues[queueOf(c)].onPreempt(p, now);
+                } else {
+                    table.completion[p] = now;
+                    completionOrder[completed++] = p;
+                    queues[queueOf(c)].onComplete(p, now);
+                }
+            }
+
+            for (int c = 0; c < cpus; c++) {
+                if (running[c] >= 0) continue;
+                SchedulingPolicy own = queues[queueOf(c)];
+                long decisionStart = SchedulerStats.ENABLED ? System.nanoTime() : 0;
+                int p;
+                if (own.hasReady()) {
+                    p = own.selectNext(now);
+                } else if (balancing == Balancing.WORK_STEALING) {
+                    int victim = busiestQueue(queues);
+                    if (victim < 0) continue;
+                    p = queues[victim].selectNext(now);
+                    steals[c]++;
+                } else {
+                    continue;
+                }
+
+                if (table.start[p] < 0) table.start[p] = now;
+                int run = Math.min(own.timeSlice(p), table.remaining[p]);
+                if (SchedulerStats.ENABLED) {
+                    if (laneEnd[c] < now) probe.idle(now - laneEnd[c]);
+                    probe.dispatch(p, lastRun[c] != p, own.readyCount(), System.nanoTime() - decisionStart);
+                }
+                if (preemptive && next < n) {
+                    run = (int) Math.min(run, (long) table.arrival[order[next]] - now);
+                }
+                table.remaining[p] -= run;
+
+                if (laneEnd[c] < now) sinks[c].slice(TimelineSink.IDLE, laneEnd[c], now);
+                sinks[c].slice(p, now, now + run);
+                laneEnd[c] = now + run;
+                busy[c] += run;
+                dispatches[c]++;
+                if (lastCore[p] >= 0 && lastCore[p] != c) migrations[c]++;
+                if (lastRun[c] != p) switches++;
+                lastRun[c] = p;
+                lastCore[p] = c;
+                running[c] = p;
+                sliceEnd[c] = now + run;
+            }
+
+            long nextEvent = next < n ? table.arrival[order[next]] : Long.MAX_VALUE;
+            for (int c = 0; c < cpus; c++) {
+                if (running[c] >= 0) nextEvent = Math.min(nextEvent, sliceEnd[c]);
+            }
+            if (nextEvent == Long.MAX_VALUE) {
+                if (completed < n) throw new IllegalStateException("Processes are ready but no CPU can run them");
+                break;
+            }
+            now = (int) nextEvent;
+        }
+
+        // Pad every lane with idle time up to the makespan so the lanes line up
+        for (int c = 0; c < cpus; c++) {
+            if (laneEnd[c] < now) sinks[c].slice(TimelineSink.IDLE, laneEnd[c], now);
+            sinks[c].finish();
+            if (SchedulerStats.ENABLED && laneEnd[c] < now) probe.idle(now - laneEnd[c]);
+        }
+        monitor.progress(now, completed, n);
+        if (SchedulerStats.ENABLED) probe.finish(n, now);
+
+        int[] waiting = new int[n];
+        int[] turnaround = new int[n];
+        int[] response = new int[n];
+        for (int p = 0; p < n; p++) {
+            turnaround[p] = table.completion[p] - table.arrival[p];
+            waiting[p] = turnaround[p] - table.burst[p];
+            response[p] = table.start[p] - table.arrival[p];
+        }
+        String name = queues[0].getName() + " (" + cpus + " CPUs, " + balancing + ")";
+        SimulationResult result = new SimulationResult(name, table, waiting, turnaround, response,
+                completionOrder, null, now, switches, 0);
+        return new MultiCoreResult(result, balancing, busy, dispatches, migrations, steals, lanes);
+    }
+
+    private int queueOf(int core) {
+        return balancing == Balancing.GLOBAL ? 0 : core;
+    }
+
+    // Queue with the most ready processes, or -1 when all are empty
+    private static int busiestQueue(SchedulingPolicy[] queues) {
+        int victim = -1, most = 0;
+        for (int q = 0; q < queues.length; q++) {
+            int count = queues[q].readyCount();
+            if (count > most) {
+                most = count;
+                victim = q;
+            }
+        }
+        return victim;
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.*;
+
+/**
+ * Outcome of a {@link MultiCoreEngine} run: the per-process metrics as a
+ * regular {@link SimulationResult}, plus busy time, dispatches, migrations
+ * and steals for every core, and one timeline lane per core.
+ */
+public class MultiCoreResult {
+    private final SimulationResult result;
+    private final MultiCoreEngine.Balancing balancing;
+    private final long[] busy;
+    private final int[] dispatches;
+    private final int[] migrations;
+    private final int[] steals;
+    private final RleTimeline[] lanes;
+    private String report;
+
+    MultiCoreResult(SimulationResult result, MultiCoreEngine.Balancing balancing, long[] busy,
+                    int[] dispatches, int[] migrations, int[] steals, RleTimeline[] lanes) {
+        this.result = result;
+        this.balancing = balancing;
+        this.busy = busy;
+        this.dispatches = dispatches;
+        this.migrations = migrations;
+        this.steals = steals;
+        this.lanes = lanes;
+    }
+
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    public MultiCoreEngine.Balancing getBalancing() {
+        return balancing;
+    }
+
+    public int cpus() {
+        return busy.length;
+    }
+
+    public long busyTime(int core) {
+        return busy[core];
+    }
+
+    // Fraction of the makespan the core spent running processes
+    public double utilization(int core) {
+        return result.getMakespan() == 0 ? 0 : (double) busy[core] / result.getMakespan();
+    }
+
+    public int dispatches(int core) {
+        return dispatches[core];
+    }
+
+    // Dispatches onto this core of a process that last ran elsewhere
+    public int migrations(int core) {
+        return migrations[core];
+    }
+
+    public int steals(int core) {
+        return steals[core];
+    }
+
+    public long totalMigrations() {
+        long total = 0;
+        for (int m : migrations) total += m;
+        return total;
+    }
+
+    // Null when the run streamed its timelines to other sinks
+    public RleTimeline getLane(int core) {
+        return lanes == null ? null : lanes[core];
+    }
+
+    // Rough heap bytes held by this result, lanes and report included
+    long memoryFootprint() {
+        long bytes = result.memoryFootprint() + 8L * busy.length + 12L * dispatches.length;
+        if (lanes != null) {
+            for (RleTimeline lane : lanes) bytes += lane.memoryFootprint();
+        }
+        if (report != null) bytes += report.length();
+        return bytes;
+    }
+
+    public String getReport() {
+        if (report == null) {
+            StringBuilder sb = new StringBuilder();
+            try {
+                writeReport(sb);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // StringBuilder never throws
+            }
+            report = sb.toString();
+        }
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    public void writeReport(Appendable out) throws IOException {
+        result.writeReport(out);
+        writeCores(out);
+    }
+
+    public void writeSummary(Appendable out) throws IOException {
+        result.writeSummary(out);
+        writeCores(out);
+    }
+
+    private void writeCores(Appendable out) throws IOException {
+        out.append("\n=== Per-CPU (").append(balancing.toString()).append(") ===\n");
+        out.append(String.format("%-5s %-12s %-8s %-12s %-12s %-8s\n",
+                "CPU", "Busy", "Util %", "Dispatches", "Migrations", "Steals"));
+        for (int c = 0; c < busy.length; c++) {
+            out.append(String.format("%-5s %-12d %-8.1f %-12d %-12d %-8d\n",
+                    "CPU" + c, busy[c], 100 * utilization(c), dispatches[c], migrations[c], steals[c]));
+        }
+        double total = 0;
+        for (int c = 0; c < busy.length; c++) total += utilization(c);
+        out.append(String.format("\nAverage Utilization: %.1f %%\n", 100 * total / busy.length));
+        out.append("Total Migrations: ").append(String.valueOf(totalMigrations())).append('\n');
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates many policy configurations on one workload in parallel and ranks
+ * them. Every configuration gets its own policy instance and run state, so
+ * the runs share nothing but the read-only workload.
+ */
+public class ParameterSweep {
+    // Most runs one sweep may ask for; larger grids are rejected up front
+    public static final int MAX_RUNS = 100_000;
+
+    public static class Row {
+        public final String parameters;
+        public final double avgWaiting;
+        public final double avgTurnaround;
+        public final int p50Waiting, p90Waiting, p99Waiting, p999Waiting;
+        public final int p50Turnaround, p90Turnaround, p99Turnaround, p999Turnaround;
+
+        Row(String parameters, SimulationResult result) {
+            this.parameters = parameters;
+            LogHistogram waiting = result.waitingHistogram();
+            LogHistogram turnaround = result.turnaroundHistogram();
+            avgWaiting = result.averageWaitingTime();
+            avgTurnaround = result.averageTurnaroundTime();
+            p50Waiting = waiting.percentile(50);
+            p90Waiting = waiting.percentile(90);
+            p99Waiting = waiting.percentile(99);
+            p999Waiting = waiting.percentile(99.9);
+            p50Turnaround = turnaround.percentile(50);
+            p90Turnaround = turnaround.percentile(90);
+            p99Turnaround = turnaround.percentile(99);
+            p999Turnaround = turnaround.percentile(99.9);
+        }
+    }
+
+    private final ProcessTable workload;
+    private final ForkJoinPool pool;
+    private SimulationMonitor monitor = SimulationMonitor.NONE;
+    private int switchCost;
+
+    public ParameterSweep(ProcessTable workload) {
+        this(workload, ForkJoinPool.commonPool());
+    }
+
+    public ParameterSweep(ProcessTable workload, ForkJoinPool pool) {
+        this.workload = workload;
+        this.pool = pool;
+    }
+
+    // Passed to every run of the sweep, so one cancellation stops them all
+    public ParameterSweep setMonitor(SimulationMonitor monitor) {
+        this.monitor = monitor;
+        return this;
+    }
+
+    // Context-switch cost of every run; with a cost, small quanta stop looking free
+    public ParameterSweep setSwitchCost(int switchCost) {
+        if (switchCost < 0) throw new IllegalArgumentException("Context switch cost must be >= 0");
+        this.switchCost = switchCost;
+        return this;
+    }
+
+    // One Round Robin run per quantum, best average waiting time first
+    public List<Row> roundRobin(int[] quanta) {
+        List<String> labels = new ArrayList<>();
+        List<Supplier<SchedulingPolicy>> policies = new ArrayList<>();
+        for (int q : quanta) {
+            labels.add("q=" + q);
+            policies.add(() -> new RoundRobinPolicy(q));
+        }
+        return run(labels, policies);
+    }
+
+    // One MLFQ run per combination of the candidate quanta of each level
+    public List<Row> mlfq(int[][] candidatesPerLevel) {
+        return mlfq(candidatesPerLevel, 0);
+    }
+
+    public List<Row> mlfq(int[][] candidatesPerLevel, int boostInterval) {
+        List<String> labels = new ArrayList<>();
+        List<Supplier<SchedulingPolicy>> policies = new ArrayList<>();
+        for (int[] quanta : grid(candidatesPerLevel)) {
+            labels.add("quanta=" + Arrays.toString(quanta));
+            policies.add(() -> new MlfqPolicy(quanta, boostInterval));
+        }
+        return run(labels, policies);
+    }
+
+    public List<Row> run(List<String> labels, List<Supplier<SchedulingPolicy>> policies) {
+        Row[] rows = new Row[policies.size()];
+        pool.invoke(new SweepTask(labels, policies, rows, 0, rows.length));
+        List<Row> ranked = new ArrayList<>(Arrays.asList(rows));
+        ranked.sort(Comparator.comparingDouble((Row r) -> r.avgWaiting).thenComparingDouble(r -> r.avgTurnaround));
+        return ranked;
+    }
+
+    private class SweepTask extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> labels;
+        private final List<Supplier<SchedulingPolicy>> policies;
+        private final Row[] rows;
+        private final int from, to;
+
+        SweepTask(List<String> labels, List<Supplier<SchedulingPolicy>> policies, Row[] rows, int from, int to) {
+            this.labels = labels;
+            this.policies = policies;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    SimulationResult result = new SimulationEngine(monitor).setSwitchCost(switchCost)
+                            .run(workload, policies.get(from).get(), NullTimelineSink.INSTANCE);
+                    rows[from] = new Row(labels.get(from), result);
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(labels, policies, rows, from, mid),
+                    new SweepTask(labels, policies, rows, mid, to));
+            return null;
+        }
+    }
+
+    public static String format(String title, List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== ").append(title).append(" Sweep (").append(rows.size())
+                .append(" runs, ranked by average waiting time) ===\n");
+        sb.append(String.format("%-5s %-24s %-10s %-8s %-8s %-8s %-8s %-10s %-8s %-8s %-8s %-8s\n",
+                "Rank", "Parameters", "Avg Wait", "p50", "p90", "p99", "p99.9", "Avg TAT", "p50", "p90", "p99", "p99.9"));
+        int rank = 1;
+        for (Row r : rows) {
+            sb.append(String.format("%-5d %-24s %-10.2f %-8d %-8d %-8d %-8d %-10.2f %-8d %-8d %-8d %-8d\n",
+                    rank++, r.parameters, r.avgWaiting, r.p50Waiting, r.p90Waiting, r.p99Waiting, r.p999Waiting,
+                    r.avgTurnaround, r.p50Turnaround, r.p90Turnaround, r.p99Turnaround, r.p999Turnaround));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a list of values such as "4", "1:10", "1:20:2" or "2,4,8:12".
+     * from:to is inclusive; the optional third part is the step.
+     */
+    public static int[] parseValues(String text) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String[] range = part.trim().split(":");
+            try {
+                if (range.length == 1) {
+                    values.add(Integer.parseInt(range[0].trim()));
+                } else if (range.length <= 3) {
+                    int from = Integer.parseInt(range[0].trim());
+                    int to = Integer.parseInt(range[1].trim());
+                    int step = range.length == 3 ? Integer.parseInt(range[2].trim()) : 1;
+                    if (step <= 0 || to < from) throw new IllegalArgumentException("Bad range: " + part.trim());
+                    if (values.size() + ((long) to - from) / step + 1 > MAX_RUNS) throw tooMany();
+                    for (long v = from; v <= to; v += step) values.add((int) v);
+                } else {
+                    throw new IllegalArgumentException("Bad range: " + part.trim());
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Not a number or range: " + part.trim());
+            }
+        }
+        if (values.size() > MAX_RUNS) throw tooMany();
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) result[i] = values.get(i);
+        return result;
+    }
+
+    // Cartesian product of the candidates of each level
+    static List<int[]> grid(int[][] candidatesPerLevel) {
+        long size = 1;
+        for (int[] candidates : candidatesPerLevel) {
+            size *= candidates.length;
+            if (size > MAX_RUNS) throw tooMany();
+        }
+        List<int[]> combos = new ArrayList<>();
+        combos.add(new int[0]);
+        for (int[] candidates : candidatesPerLevel) {
+            List<int[]> next = new ArrayList<>();
+            for (int[] prefix : combos) {
+                for (int value : candidates) {
+                    int[] combo = Arrays.copyOf(prefix, prefix.length + 1);
+                    combo[prefix.length] = value;
+                    next.add(combo);
+                }
+            }
+            combos = next;
+        }
+        return combos;
+    }
+
+    private static IllegalArgumentException tooMany() {
+        return new IllegalArgumentException("A sweep is limited to " + MAX_RUNS + " runs");
+    }
+}
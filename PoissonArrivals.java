@@ -0,0 +1,46 @@
+import java.util.SplittableRandom;
+
+/**
+ * Poisson arrival process: exponential gaps with the given mean rate (arrivals
+ * per time unit) and exponential bursts with the given mean, at least 1.
+ * Never ends; the engine's horizon bounds the run.
+ */
+public class PoissonArrivals implements ArrivalStream {
+    private final double rate;
+    private final double meanBurst;
+    private final SplittableRandom random;
+    private double time;
+    private int arrival;
+    private int burst;
+
+    public PoissonArrivals(double rate, double meanBurst, long seed) {
+        if (!(rate > 0)) throw new IllegalArgumentException("Arrival rate must be > 0");
+        if (!(meanBurst >= 1)) throw new IllegalArgumentException("Mean burst must be >= 1");
+        this.rate = rate;
+        this.meanBurst = meanBurst;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public boolean advance() {
+        time += exponential(1 / rate);
+        if (time >= Integer.MAX_VALUE) return false;
+        arrival = (int) time;
+        burst = (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(exponential(meanBurst))));
+        return true;
+    }
+
+    @Override
+    public int arrival() {
+        return arrival;
+    }
+
+    @Override
+    public int burst() {
+        return burst;
+    }
+
+    private double exponential(double mean) {
+        return -mean * Math.log(1.0 - random.nextDouble());
+    }
+}
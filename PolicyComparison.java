@@ -0,0 +1,179 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs every registered policy (or a given list) on one workload at once and
+ * lines the results up side by side. The workload is only read; each run
+ * works on its own forRun() view and policy instance, so the runs share no
+ * mutable state and the whole comparison takes about as long as its slowest
+ * run when there are enough cores.
+ *
+ * Runs go to virtual threads where the JDK has them (21 and later, found by
+ * reflection so the code still builds on 17) and to one platform thread per
+ * core otherwise.
+ */
+public class PolicyComparison {
+
+    public static class Entry {
+        public final String name;
+        public final SimulationResult result;   // null when the run could not start
+        public final String error;              // why, e.g. a missing parameter
+        public final long elapsedNanos;
+
+        Entry(String name, SimulationResult result, String error, long elapsedNanos) {
+            this.name = name;
+            this.result = result;
+            this.error = error;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    private final ProcessTable workload;
+    private final PolicyParams params;
+    private SimulationMonitor monitor = SimulationMonitor.NONE;
+    private int switchCost;
+    private boolean keepTimelines;
+    private long elapsedNanos;
+
+    public PolicyComparison(ProcessTable workload, PolicyParams params) {
+        this.workload = workload;
+        this.params = params;
+    }
+
+    // Sees the combined progress of all runs; one cancellation stops them all
+    public PolicyComparison setMonitor(SimulationMonitor monitor) {
+        this.monitor = monitor;
+        return this;
+    }
+
+    public PolicyComparison setSwitchCost(int switchCost) {
+        if (switchCost < 0) throw new IllegalArgumentException("Context switch cost must be >= 0");
+        this.switchCost = switchCost;
+        return this;
+    }
+
+    // Keep each run's timeline for the Gantt chart; off by default
+    public PolicyComparison setKeepTimelines(boolean keepTimelines) {
+        this.keepTimelines = keepTimelines;
+        return this;
+    }
+
+    // Wall time of the last run() call, all policies together
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<Entry> run() {
+        return run(PolicyRegistry.names());
+    }
+
+    // One entry per name, in the given order
+    public List<Entry> run(List<String> names) {
+        long start = System.nanoTime();
+        Entry[] entries = new Entry[names.size()];
+        AtomicIntegerArray completed = new AtomicIntegerArray(names.size());
+        Map<Integer, Future<Entry>> futures = new LinkedHashMap<>();
+        ExecutorService executor = newExecutor();
+        try {
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                SchedulingPolicy policy;
+                try {
+                    policy = PolicyRegistry.create(name, params);
+                } catch (IllegalArgumentException ex) {
+                    entries[i] = new Entry(name, null, ex.getMessage(), 0);
+                    continue;
+                }
+                SimulationMonitor runMonitor = progressOf(completed, i);
+                futures.put(i, executor.submit(() -> run(name, policy, runMonitor)));
+            }
+            for (Map.Entry<Integer, Future<Entry>> future : futures.entrySet()) {
+                int i = future.getKey();
+                try {
+                    entries[i] = future.getValue().get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof CancellationException) throw (CancellationException) cause;
+                    if (!(cause instanceof IllegalArgumentException)) throw new IllegalStateException(cause);
+                    entries[i] = new Entry(names.get(i), null, cause.getMessage(), 0);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Comparison interrupted");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return Arrays.asList(entries);
+    }
+
+    private Entry run(String name, SchedulingPolicy policy, SimulationMonitor runMonitor) {
+        long start = System.nanoTime();
+        SimulationEngine engine = new SimulationEngine(runMonitor).setSwitchCost(switchCost);
+        SimulationResult result = keepTimelines
+                ? engine.run(workload, policy)
+                : engine.run(workload, policy, NullTimelineSink.INSTANCE);
+        return new Entry(name, result, null, System.nanoTime() - start);
+    }
+
+    // Reports the processes finished across all runs against the total of all runs
+    private SimulationMonitor progressOf(AtomicIntegerArray completed, int run) {
+        return new SimulationMonitor() {
+            @Override
+            public void progress(int now, int done, int total) {
+                completed.set(run, done);
+                long sum = 0;
+                for (int i = 0; i < completed.length(); i++) sum += completed.get(i);
+                long all = (long) total * completed.length();
+                long scale = all / Integer.MAX_VALUE + 1;     // keeps both counts in int range
+                monitor.progress(now, (int) (sum / scale), (int) (all / scale));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled();
+            }
+        };
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread thread = new Thread(r, "policy-comparison");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // An elapsedNanos of 0 leaves out the wall time line, e.g. for cached results
+    public static String format(List<Entry> entries, long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Comparison (").append(entries.size()).append(" algorithms) ===\n");
+        sb.append(String.format("%-28s %-10s %-10s %-10s %-8s %-8s %-10s %-10s %-10s %-8s\n",
+                "Algorithm", "Avg Wait", "Avg TAT", "Avg Resp", "p99 Wait", "p99 TAT",
+                "Switches", "Throughput", "Makespan", "Time ms"));
+        long slowest = 0;
+        for (Entry e : entries) {
+            if (e.result == null) {
+                sb.append(String.format("%-28s skipped: %s\n", e.name, e.error));
+                continue;
+            }
+            SimulationResult r = e.result;
+            sb.append(String.format("%-28s %-10.2f %-10.2f %-10.2f %-8d %-8d %-10d %-10.4f %-10d %-8d\n",
+                    e.name, r.averageWaitingTime(), r.averageTurnaroundTime(), r.averageResponseTime(),
+                    r.waitingHistogram().percentile(99), r.turnaroundHistogram().percentile(99),
+                    r.contextSwitches(), r.throughput(), r.getMakespan(), e.elapsedNanos / 1_000_000));
+            slowest = Math.max(slowest, e.elapsedNanos);
+        }
+        if (elapsedNanos > 0) {
+            sb.append(String.format("\nWall time: %d ms (slowest single run %d ms)\n",
+                    elapsedNanos / 1_000_000, slowest / 1_000_000));
+        }
+        return sb.toString();
+    }
+}
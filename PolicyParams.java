@@ -0,0 +1,83 @@
+import java.util.Arrays;
+
+/**
+ * Tuning values for the registered policies. Unset values are null and only
+ * complained about by the policies that actually need them.
+ */
+public class PolicyParams {
+    private Integer quantum;
+    private int[] mlfqQuanta;
+    private Integer mlfqBoost;
+    private Integer cfsLatency;
+    private Integer cfsMinGranularity;
+    private Integer agingInterval;
+
+    public PolicyParams setQuantum(Integer quantum) {
+        this.quantum = quantum;
+        return this;
+    }
+
+    public PolicyParams setMlfqQuanta(int[] mlfqQuanta) {
+        this.mlfqQuanta = mlfqQuanta;
+        return this;
+    }
+
+    public PolicyParams setMlfqBoost(Integer mlfqBoost) {
+        this.mlfqBoost = mlfqBoost;
+        return this;
+    }
+
+    public PolicyParams setCfsLatency(Integer cfsLatency) {
+        this.cfsLatency = cfsLatency;
+        return this;
+    }
+
+    public PolicyParams setCfsMinGranularity(Integer cfsMinGranularity) {
+        this.cfsMinGranularity = cfsMinGranularity;
+        return this;
+    }
+
+    public PolicyParams setAgingInterval(Integer agingInterval) {
+        this.agingInterval = agingInterval;
+        return this;
+    }
+
+    public int quantum() {
+        if (quantum == null) throw new IllegalArgumentException("Quantum is required.");
+        return quantum;
+    }
+
+    public int[] mlfqQuanta() {
+        if (mlfqQuanta == null) {
+            throw new IllegalArgumentException("Please enter valid integer values for all MLFQ quanta.");
+        }
+        return mlfqQuanta;
+    }
+
+    // Optional: 0 (no boost) when unset
+    public int mlfqBoost() {
+        return mlfqBoost == null ? 0 : mlfqBoost;
+    }
+
+    // Optional: CfsPolicy.DEFAULT_LATENCY when unset
+    public int cfsLatency() {
+        return cfsLatency == null ? CfsPolicy.DEFAULT_LATENCY : cfsLatency;
+    }
+
+    // Optional: CfsPolicy.DEFAULT_MIN_GRANULARITY when unset
+    public int cfsMinGranularity() {
+        return cfsMinGranularity == null ? CfsPolicy.DEFAULT_MIN_GRANULARITY : cfsMinGranularity;
+    }
+
+    // Optional: 0 (no aging) when unset
+    public int agingInterval() {
+        return agingInterval == null ? 0 : agingInterval;
+    }
+
+    // Every value, set or not, e.g. "quantum=4 quanta=[2, 4, 8] boost=null"; used in cache keys
+    @Override
+    public String toString() {
+        return "quantum=" + quantum + " quanta=" + Arrays.toString(mlfqQuanta) + " boost=" + mlfqBoost
+                + " latency=" + cfsLatency + " granularity=" + cfsMinGranularity + " aging=" + agingInterval;
+    }
+}
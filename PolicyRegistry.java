@@ -0,0 +1,41 @@
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Name to factory lookup for the scheduling policies, in the order they are
+ * offered in the GUI.
+ */
+public final class PolicyRegistry {
+    private static final Map<String, Function<PolicyParams, SchedulingPolicy>> POLICIES = new LinkedHashMap<>();
+
+    static {
+        register("FIFO", params -> new FifoPolicy());
+        register("SJF", params -> new SjfPolicy());
+        register("SRTF", params -> new SrtfPolicy());
+        register("Round Robin", params -> new RoundRobinPolicy(params.quantum()));
+        register("MLFQ", params -> new MlfqPolicy(params.mlfqQuanta(), params.mlfqBoost()));
+        register("Priority", params -> new PriorityPolicy(false, params.agingInterval()));
+        register("Preemptive Priority", params -> new PriorityPolicy(true, params.agingInterval()));
+        register("CFS", params -> new CfsPolicy(params.cfsLatency(), params.cfsMinGranularity()));
+    }
+
+    private PolicyRegistry() {
+    }
+
+    public static synchronized void register(String name, Function<PolicyParams, SchedulingPolicy> factory) {
+        POLICIES.put(name, factory);
+    }
+
+    public static synchronized List<String> names() {
+        return new ArrayList<>(POLICIES.keySet());
+    }
+
+    // Returns a fresh policy instance; policies keep per-run state
+    public static synchronized SchedulingPolicy create(String name, PolicyParams params) {
+        Function<PolicyParams, SchedulingPolicy> factory = POLICIES.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Algorithm \"" + name + "\" not implemented yet.");
+        }
+        return factory.apply(params);
+    }
+}
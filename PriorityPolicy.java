@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * Priority scheduling: the ready process with the lowest priority number
+ * runs first, equal priorities in the order they arrived. The preemptive
+ * variant is consulted again whenever a process arrives, so a more urgent
+ * arrival takes the CPU at once; a preempted process keeps its place among
+ * equals, so only a strictly more urgent one can take the CPU from it.
+ *
+ * With aging, a waiting process gains one priority level (down to 0) for
+ * every agingInterval it has waited since it last entered the ready set
+ * (its arrival, the end of its slice, or the end of its I/O), however late
+ * the engine delivers it, so low-priority processes cannot starve. Each
+ * queued process has one pending aging step in an {@link IoQueue} keyed by
+ * its due time; the ready set is an {@link IndexedHeap}, so every step is
+ * one O(log n) decreaseKey instead of re-sorting the ready set.
+ */
+public class PriorityPolicy implements SchedulingPolicy {
+    private final boolean preemptive;
+    private final int agingInterval;
+    private final IndexedHeap ready = new IndexedHeap();
+    private final IoQueue aging = new IoQueue();
+    private ProcessTable table;
+    private int[] effective = new int[0];   // current priority of each queued process
+    private int[] dueTime = new int[0];     // time of each queued process's next aging step
+    private long[] order = new long[0];     // queueing order among equals, -1 if not queued or running from here
+    private int sequence;
+    private int selected = -1;              // last process selectNext handed out, with its order
+    private long selectedOrder;
+    private int selectedRemaining;
+    private int[] blockedAt = new int[0];   // when each process blocked for I/O
+
+    public PriorityPolicy(boolean preemptive) {
+        this(preemptive, 0);
+    }
+
+    // agingInterval 0 disables aging
+    public PriorityPolicy(boolean preemptive, int agingInterval) {
+        if (agingInterval < 0) throw new IllegalArgumentException("Aging interval must be >= 0");
+        this.preemptive = preemptive;
+        this.agingInterval = agingInterval;
+    }
+
+    @Override
+    public String getName() {
+        return preemptive ? "Priority (Preemptive)" : "Priority (Non-Preemptive)";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        ready.clear();
+        aging.clear();
+        effective = new int[table.size()];
+        dueTime = new int[table.size()];
+        order = new long[table.size()];
+        blockedAt = new int[table.size()];
+        Arrays.fill(order, -1);
+        sequence = 0;
+        selected = -1;
+    }
+
+    // The engine may deliver arrivals late, at the end of a non-preemptive slice,
+    // so waiting is counted from the arrival time itself
+    @Override
+    public void onArrival(int p, int now) {
+        if (p >= effective.length) {
+            // Streaming tables grow while running
+            int capacity = Math.max(p + 1, 2 * effective.length);
+            int old = effective.length;
+            effective = Arrays.copyOf(effective, capacity);
+            dueTime = Arrays.copyOf(dueTime, capacity);
+            order = Arrays.copyOf(order, capacity);
+            blockedAt = Arrays.copyOf(blockedAt, capacity);
+            Arrays.fill(order, old, capacity, -1);
+        }
+        order[p] = nextOrder();
+        enqueue(p, table.arrival[p]);
+    }
+
+    @Override
+    public void onBlock(int p, int now) {
+        blockedAt[p] = now;
+        order[p] = -1;
+    }
+
+    @Override
+    public void onComplete(int p, int now) {
+        order[p] = -1;
+    }
+
+    @Override
+    public void onWake(int p, int now) {
+        order[p] = nextOrder();
+        enqueue(p, blockedAt[p] + table.lastIo(p));
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return ready.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        age(now);
+        int p = ready.poll();
+        selected = p;
+        selectedOrder = order[p];
+        selectedRemaining = table.remaining[p];
+        order[p] = -1;
+        return p;
+    }
+
+    /*
+     * Called on the instance p will be preempted into. It keeps its order
+     * only if it is what this instance's selectNext just handed out; a
+     * process stolen from another instance, or handed to a thief and since
+     * run elsewhere (its remaining time changed), gets a fresh one.
+     */
+    @Override
+    public int timeSlice(int p) {
+        if (p == selected && table.remaining[p] == selectedRemaining) order[p] = selectedOrder;
+        selected = -1;
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return preemptive;
+    }
+
+    /*
+     * Back to its own priority, aging from now on, but still ahead of equals
+     * queued after it. A process stolen from another core's instance has no
+     * place here and queues last among its equals.
+     */
+    @Override
+    public void onPreempt(int p, int now) {
+        if (order[p] < 0) order[p] = nextOrder();
+        enqueue(p, now);
+    }
+
+    // readySince is when p's current wait began
+    private void enqueue(int p, int readySince) {
+        effective[p] = table.priority(p);
+        ready.add(p, key(p));
+        scheduleAging(p, readySince);
+    }
+
+    // Applies every aging step due by now
+    private void age(int now) {
+        while (!aging.isEmpty() && aging.peekTime() <= now) {
+            int due = aging.peekTime();
+            int p = aging.poll();
+            // Steps of processes that were dispatched since are stale
+            if (!ready.contains(p) || dueTime[p] != due) continue;
+            effective[p]--;
+            ready.decreaseKey(p, key(p));
+            scheduleAging(p, due);
+        }
+    }
+
+    private void scheduleAging(int p, int from) {
+        if (agingInterval == 0 || effective[p] == 0 || from > Integer.MAX_VALUE - agingInterval) return;
+        dueTime[p] = from + agingInterval;
+        aging.add(dueTime[p], p);
+    }
+
+    // Wraps after 2^32 queueings
+    private long nextOrder() {
+        return sequence++ & 0xFFFFFFFFL;
+    }
+
+    // Priority in the high word, queueing order in the low one
+    private long key(int p) {
+        return (long) effective[p] << 32 | order[p];
+    }
+}
@@ -0,0 +1,478 @@
+import java.util.*;
+
+/**
+ * Struct-of-arrays process table. Each process is an int index into parallel
+ * primitive arrays, so the engines never touch per-process objects.
+ * PIDs are interned: every distinct PID string is stored once and can be
+ * looked up by index.
+ *
+ * The engines never run on a table directly. Each run works on forRun(),
+ * which shares the workload arrays but owns its per-run state, so any number
+ * of runs can use the same table at once.
+ *
+ * A process can alternate CPU and I/O bursts (see add(String, int, int[])).
+ * Its burst is then the total CPU time, and remaining is the time left in
+ * the current CPU burst. The sequences are only stored once some process has
+ * I/O, so plain workloads pay nothing for them. Nice values and priorities
+ * (see setNice and setPriority) are stored the same way, once some process
+ * has a nonzero one.
+ */
+public class ProcessTable {
+    public static final int MIN_NICE = -20;
+    public static final int MAX_NICE = 19;
+
+    private String[] pids;
+    private final Map<String, Integer> pidIndex;
+    private int size;
+    private final ProcessTable workload;    // this, or the table a run view was made from
+    private int[] arrivalOrder;             // cached on the workload table
+    private IntRingBuffer freeSlots;        // released slots, see allocate()
+
+    // Workload, filled by add()
+    int[] arrival;
+    int[] burst;
+
+    // Per-run state, filled by reset()
+    int[] remaining;
+    int[] start;
+    int[] completion;
+    int[] level;
+    private int[] boostPeriod;  // only allocated for MLFQ runs with a boost, see boostPeriods()
+
+    // CPU/I-O sequences, null until a process has I/O
+    private int[] phaseOffset;  // process i's entry in phases, or -1 for a single CPU burst
+    private int[] phases;       // per sequence: its length, then CPU, I/O, CPU, ... bursts
+    private int phasesSize;
+    private int phasesFreed;    // entries of released slots, see release()
+    private int[] phase;        // per run: index of the current CPU burst in the sequence
+
+    private byte[] nice;        // null until a process has a nonzero nice value
+    private int[] priority;     // null until a process has a nonzero priority
+
+    public ProcessTable() {
+        this(16);
+    }
+
+    public ProcessTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        workload = this;
+        pidIndex = new HashMap<>();
+        pids = new String[capacity];
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        remaining = new int[capacity];
+        start = new int[capacity];
+        completion = new int[capacity];
+        level = new int[capacity];
+    }
+
+    // Run view: shares PIDs, arrival and burst, owns fresh per-run arrays
+    private ProcessTable(ProcessTable workload) {
+        this.workload = workload;
+        this.pidIndex = workload.pidIndex;
+        this.pids = workload.pids;
+        this.size = workload.size;
+        this.arrival = workload.arrival;
+        this.burst = workload.burst;
+        this.phaseOffset = workload.phaseOffset;
+        this.phases = workload.phases;
+        this.phasesSize = workload.phasesSize;
+        this.nice = workload.nice;
+        this.priority = workload.priority;
+        remaining = new int[size];
+        start = new int[size];
+        completion = new int[size];
+        level = new int[size];
+        if (phaseOffset != null) phase = new int[size];
+        reset();
+    }
+
+    // Private per-run state over this workload; the workload must not change while it is in use
+    public ProcessTable forRun() {
+        return new ProcessTable(workload);
+    }
+
+    public int add(String pid, int arrivalTime, int burstTime) {
+        int i = add(arrivalTime, burstTime);
+        Integer first = pidIndex.putIfAbsent(pid, i);
+        pids[i] = first == null ? pid : pids[first];
+        return i;
+    }
+
+    /**
+     * Adds a process that alternates CPU and I/O: bursts holds CPU, I/O, CPU,
+     * ... times and must start and end with a CPU burst. After each CPU burst
+     * but the last, the process blocks for the following I/O time.
+     */
+    public int add(String pid, int arrivalTime, int[] bursts) {
+        if (bursts.length == 1) return add(pid, arrivalTime, bursts[0]);
+        int i = add(pid, arrivalTime, cpuTime(bursts));
+        setPhases(i, bursts);
+        return i;
+    }
+
+    // Total CPU time of a CPU, I/O, CPU, ... sequence, checking its shape
+    static int cpuTime(int[] bursts) {
+        if (bursts.length % 2 == 0) throw new IllegalArgumentException("Bursts must start and end with a CPU burst");
+        long cpu = 0;
+        for (int b = 0; b < bursts.length; b++) {
+            if (bursts[b] <= 0) throw new IllegalArgumentException("Burst times must be > 0");
+            if (b % 2 == 0) cpu += bursts[b];
+        }
+        if (cpu > Integer.MAX_VALUE) throw new IllegalArgumentException("Total CPU time is too large");
+        return (int) cpu;
+    }
+
+    private void setPhases(int i, int[] bursts) {
+        if (phaseOffset == null) {
+            phaseOffset = new int[arrival.length];
+            Arrays.fill(phaseOffset, -1);
+            phases = new int[Math.max(16, 2 * bursts.length)];
+            phase = new int[arrival.length];
+        }
+        if (phasesSize + bursts.length + 1 > phases.length) {
+            phases = Arrays.copyOf(phases, Math.max(2 * phases.length, phasesSize + bursts.length + 1));
+        }
+        phaseOffset[i] = phasesSize;
+        phases[phasesSize++] = bursts.length;
+        System.arraycopy(bursts, 0, phases, phasesSize, bursts.length);
+        phasesSize += bursts.length;
+        phase[i] = 0;
+        remaining[i] = bursts[0];
+    }
+
+    // Unnamed process: pid(i) reports it as "P<i+1>" without storing a String
+    public int add(int arrivalTime, int burstTime) {
+        if (workload != this) throw new IllegalStateException("Cannot add processes to a run view");
+        if (size == arrival.length) grow();
+        synchronized (this) {
+            arrivalOrder = null;
+        }
+        arrival[size] = arrivalTime;
+        burst[size] = burstTime;
+        remaining[size] = burstTime;
+        start[size] = -1;
+        if (phaseOffset != null) phaseOffset[size] = -1;
+        if (nice != null) nice[size] = 0;
+        if (priority != null) priority[size] = 0;
+        return size++;
+    }
+
+    /*
+     * Open-system use (see StreamingEngine): the table is run on directly and
+     * slots of finished processes are released and handed out again, so it
+     * only grows to the peak number of processes in the system at once.
+     */
+    public int allocate(int arrivalTime, int burstTime) {
+        if (freeSlots == null || freeSlots.isEmpty()) return add(arrivalTime, burstTime);
+        int i = freeSlots.poll();
+        arrival[i] = arrivalTime;
+        burst[i] = burstTime;
+        remaining[i] = burstTime;
+        start[i] = -1;
+        completion[i] = 0;
+        level[i] = 0;
+        if (nice != null) nice[i] = 0;
+        if (priority != null) priority[i] = 0;
+        return i;
+    }
+
+    // allocate() for a CPU, I/O, CPU, ... sequence
+    public int allocate(int arrivalTime, int[] bursts) {
+        if (bursts.length == 1) return allocate(arrivalTime, bursts[0]);
+        int i = allocate(arrivalTime, cpuTime(bursts));
+        setPhases(i, bursts);
+        return i;
+    }
+
+    public void release(int i) {
+        if (freeSlots == null) freeSlots = new IntRingBuffer();
+        freeSlots.add(i);
+        if (phaseOffset != null && phaseOffset[i] >= 0) {
+            phasesFreed += phases[phaseOffset[i]] + 1;
+            phaseOffset[i] = -1;
+            if (phasesFreed >= 4096 && phasesFreed > phasesSize / 2) compactPhases();
+        }
+    }
+
+    // Drops the sequences of released slots, so they never fill more than about half of phases
+    private void compactPhases() {
+        int[] live = new int[Math.max(16, 2 * (phasesSize - phasesFreed))];
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            int off = phaseOffset[i];
+            if (off < 0) continue;
+            int length = phases[off] + 1;
+            System.arraycopy(phases, off, live, used, length);
+            phaseOffset[i] = used;
+            used += length;
+        }
+        phases = live;
+        phasesSize = used;
+        phasesFreed = 0;
+    }
+
+    public int add(Process p) {
+        return add(p.pid, p.arrivalTime, p.burstTime);
+    }
+
+    public int add(Scheduler.Process p) {
+        int i = p.bursts != null ? add(p.pid, p.arrivalTime, p.bursts) : add(p.pid, p.arrivalTime, p.burstTime);
+        if (p.nice != 0) setNice(i, p.nice);
+        if (p.priority != 0) setPriority(i, p.priority);
+        return i;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String pid(int i) {
+        String pid = pids[i];
+        return pid != null ? pid : "P" + (i + 1);
+    }
+
+    // PID order for tie-breaking; unnamed processes compare by index
+    public int comparePids(int a, int b) {
+        if (pids[a] == null && pids[b] == null) return Integer.compare(a, b);
+        return pid(a).compareTo(pid(b));
+    }
+
+    // Index of the first process with this PID, or -1
+    public int indexOf(String pid) {
+        Integer i = pidIndex.get(pid);
+        return i == null ? -1 : i;
+    }
+
+    public int arrival(int i) {
+        return arrival[i];
+    }
+
+    public int burst(int i) {
+        return burst[i];
+    }
+
+    public int remaining(int i) {
+        return remaining[i];
+    }
+
+    public int start(int i) {
+        return start[i];
+    }
+
+    public int completion(int i) {
+        return completion[i];
+    }
+
+    public int level(int i) {
+        return level[i];
+    }
+
+    // Nice value of process i, MIN_NICE to MAX_NICE; 0 unless set
+    public int nice(int i) {
+        return nice == null ? 0 : nice[i];
+    }
+
+    // Lower nice values get a larger CPU share under weighted policies such as CFS
+    public void setNice(int i, int value) {
+        if (workload != this) throw new IllegalStateException("Cannot change the workload through a run view");
+        if (value < MIN_NICE || value > MAX_NICE) {
+            throw new IllegalArgumentException("Nice values must be between " + MIN_NICE + " and " + MAX_NICE);
+        }
+        if (nice == null) {
+            if (value == 0) return;
+            nice = new byte[arrival.length];
+        }
+        nice[i] = (byte) value;
+    }
+
+    // True when some process has a nonzero nice value
+    public boolean hasNice() {
+        return nice != null;
+    }
+
+    // Priority of process i for the priority policies, 0 (most urgent) unless set
+    public int priority(int i) {
+        return priority == null ? 0 : priority[i];
+    }
+
+    public void setPriority(int i, int value) {
+        if (workload != this) throw new IllegalStateException("Cannot change the workload through a run view");
+        if (value < 0) throw new IllegalArgumentException("Priorities must be >= 0");
+        if (priority == null) {
+            if (value == 0) return;
+            priority = new int[arrival.length];
+        }
+        priority[i] = value;
+    }
+
+    // True when some process has a nonzero priority
+    public boolean hasPriority() {
+        return priority != null;
+    }
+
+    // Restores the per-run arrays so the same workload can be simulated again
+    public void reset() {
+        System.arraycopy(burst, 0, remaining, 0, size);
+        Arrays.fill(start, 0, size, -1);
+        Arrays.fill(completion, 0, size, 0);
+        Arrays.fill(level, 0, size, 0);
+        if (boostPeriod != null) Arrays.fill(boostPeriod, 0, size, 0);
+        if (phaseOffset != null) {
+            Arrays.fill(phase, 0, size, 0);
+            for (int i = 0; i < size; i++) {
+                if (phaseOffset[i] >= 0) remaining[i] = phases[phaseOffset[i] + 1];
+            }
+        }
+    }
+
+    // True when some process has I/O bursts
+    public boolean hasIo() {
+        return phaseOffset != null;
+    }
+
+    // Total I/O time of process i
+    public int ioTime(int i) {
+        if (phaseOffset == null || phaseOffset[i] < 0) return 0;
+        int off = phaseOffset[i];
+        long io = 0;
+        for (int b = 1; b < phases[off]; b += 2) io += phases[off + 1 + b];
+        return (int) Math.min(io, Integer.MAX_VALUE);
+    }
+
+    // CPU, I/O, CPU, ... bursts of process i; a single CPU burst for plain processes
+    public int[] bursts(int i) {
+        if (phaseOffset == null || phaseOffset[i] < 0) return new int[]{burst[i]};
+        int off = phaseOffset[i];
+        return Arrays.copyOfRange(phases, off + 1, off + 1 + phases[off]);
+    }
+
+    // I/O time right before p's current CPU burst, 0 before its first
+    int lastIo(int p) {
+        if (phaseOffset == null || phaseOffset[p] < 0 || phase[p] == 0) return 0;
+        return phases[phaseOffset[p] + phase[p]];
+    }
+
+    /*
+     * Called when process p finished its current CPU burst. Returns the I/O
+     * time that follows and moves p on to its next CPU burst, or returns -1
+     * when that was the last one.
+     */
+    int nextIo(int p) {
+        if (phaseOffset == null || phaseOffset[p] < 0) return -1;
+        int off = phaseOffset[p];
+        int b = phase[p];
+        if (b + 1 >= phases[off]) return -1;
+        phase[p] = b + 2;
+        remaining[p] = phases[off + 1 + b + 2];
+        return phases[off + 1 + b + 1];
+    }
+
+    /**
+     * 64-bit hash of the workload (PIDs, arrival and burst times, in order),
+     * for recognizing a workload that was simulated before. Per-run state
+     * does not enter it.
+     */
+    public long fingerprint() {
+        long h = size;
+        for (int i = 0; i < size; i++) {
+            String pid = pids[i];
+            if (pid == null) {
+                h = mix(h, -1 - i);
+            } else {
+                // Every character, since String.hashCode() collides far too easily ("Aa", "BB")
+                h = mix(h, pid.length());
+                for (int c = 0; c < pid.length(); c++) h = mix(h, pid.charAt(c));
+            }
+            h = mix(h, arrival[i]);
+            h = mix(h, burst[i]);
+            if (phaseOffset != null && phaseOffset[i] >= 0) {
+                for (int b : bursts(i)) h = mix(h, b);
+            }
+            if (nice != null && nice[i] != 0) h = mix(h, 0x6E696365 ^ nice[i]);
+            if (priority != null && priority[i] != 0) h = mix(h, 0x7072696F ^ priority[i]);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        return h ^ h >>> 33;
+    }
+
+    // Whether other holds the same processes as this table, everything fingerprint() covers
+    public boolean sameWorkload(ProcessTable other) {
+        if (other == this) return true;
+        if (other.size != size) return false;
+        for (int i = 0; i < size; i++) {
+            if (arrival[i] != other.arrival[i] || burst[i] != other.burst[i]
+                    || !Objects.equals(pids[i], other.pids[i])
+                    || nice(i) != other.nice(i) || priority(i) != other.priority(i)
+                    || !Arrays.equals(bursts(i), other.bursts(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long h, int value) {
+        return (h ^ value) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+    }
+
+    // Rough heap bytes of the arrays and PIDs this table holds, shared ones included
+    long memoryFootprint() {
+        long bytes = 4L * (arrival.length + burst.length + remaining.length + start.length
+                + completion.length + level.length) + 4L * pids.length;
+        if (boostPeriod != null) bytes += 4L * boostPeriod.length;
+        if (phaseOffset != null) bytes += 4L * (phaseOffset.length + phases.length + phase.length);
+        if (nice != null) bytes += nice.length;
+        if (priority != null) bytes += 4L * priority.length;
+        // Named PIDs: the String and its index entry
+        bytes += 96L * pidIndex.size();
+        return bytes;
+    }
+
+    // Per-run boost period of each process's MLFQ level, shared by every policy instance of the run
+    int[] boostPeriods() {
+        if (boostPeriod == null) boostPeriod = new int[level.length];
+        return boostPeriod;
+    }
+
+    // Indices ordered by arrival time; equal arrivals keep table order.
+    // Computed once per workload and shared, so callers must not modify it.
+    public int[] arrivalOrder() {
+        if (workload != this) return workload.arrivalOrder();
+        synchronized (this) {
+            if (arrivalOrder == null) arrivalOrder = sortByArrival();
+            return arrivalOrder;
+        }
+    }
+
+    private int[] sortByArrival() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) arrival[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private void grow() {
+        int capacity = arrival.length * 2;
+        pids = Arrays.copyOf(pids, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        start = Arrays.copyOf(start, capacity);
+        completion = Arrays.copyOf(completion, capacity);
+        level = Arrays.copyOf(level, capacity);
+        if (boostPeriod != null) boostPeriod = Arrays.copyOf(boostPeriod, capacity);
+        if (phaseOffset != null) {
+            phaseOffset = Arrays.copyOf(phaseOffset, capacity);
+            phase = Arrays.copyOf(phase, capacity);
+        }
+        if (nice != null) nice = Arrays.copyOf(nice, capacity);
+        if (priority != null) priority = Arrays.copyOf(priority, capacity);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Wraps a policy and writes each of its decisions to a {@link TraceWriter}:
+ * a dispatch when the engine asks for the time slice, and a preemption or
+ * completion when the slice ends. Decisions are otherwise left to the
+ * wrapped policy. Only for {@link SimulationEngine}, which asks for exactly
+ * one time slice per dispatch.
+ */
+public class RecordingPolicy implements SchedulingPolicy {
+    private final SchedulingPolicy policy;
+    private final TraceWriter out;
+    private int dispatchTime;
+
+    public RecordingPolicy(SchedulingPolicy policy, TraceWriter out) {
+        this.policy = policy;
+        this.out = out;
+    }
+
+    @Override
+    public String getName() {
+        return policy.getName();
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        policy.reset(table);
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        policy.onArrival(p, now);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return policy.hasReady();
+    }
+
+    @Override
+    public int readyCount() {
+        return policy.readyCount();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        dispatchTime = now;
+        return policy.selectNext(now);
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        int slice = policy.timeSlice(p);
+        out.dispatch(p, dispatchTime, slice);
+        return slice;
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return policy.isPreemptive();
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        out.preempt(p, now);
+        policy.onPreempt(p, now);
+    }
+
+    @Override
+    public void onComplete(int p, int now) {
+        out.complete(p, now);
+        policy.onComplete(p, now);
+    }
+
+    @Override
+    public void onBlock(int p, int now) {
+        out.complete(p, now);
+        policy.onBlock(p, now);
+    }
+
+    @Override
+    public void onWake(int p, int now) {
+        policy.onWake(p, now);
+    }
+}
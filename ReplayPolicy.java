@@ -0,0 +1,86 @@
+/**
+ * Plays back the decisions of a recorded trace, without any scheduling logic
+ * of its own: selectNext and timeSlice return what the recorded policy chose.
+ * Run it on the trace's own workload ({@link TraceReader#getWorkload}); a
+ * schedule that drifts from the recording fails with IllegalStateException.
+ */
+public class ReplayPolicy implements SchedulingPolicy {
+    private final TraceReader trace;
+    private ProcessTable table;
+    private int ready;
+
+    public ReplayPolicy(TraceReader trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public String getName() {
+        return trace.getPolicy();
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        ready = 0;
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        ready++;
+    }
+
+    @Override
+    public boolean hasReady() {
+        return ready > 0;
+    }
+
+    @Override
+    public int readyCount() {
+        return ready;
+    }
+
+    @Override
+    public int selectNext(int now) {
+        expect(TraceWriter.DISPATCH, now);
+        ready--;
+        return trace.process();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return trace.slice();
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return trace.isPreemptive();
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        expect(TraceWriter.PREEMPT, now);
+        ready++;
+    }
+
+    @Override
+    public void onComplete(int p, int now) {
+        expect(TraceWriter.COMPLETE, now);
+    }
+
+    @Override
+    public void onBlock(int p, int now) {
+        expect(TraceWriter.COMPLETE, now);
+    }
+
+    @Override
+    public void onWake(int p, int now) {
+        ready++;
+    }
+
+    private void expect(int type, int now) {
+        if (!trace.next() || trace.type() != type || trace.time() != now) {
+            throw new IllegalStateException("Replay diverged at event " + trace.events() + ": trace has "
+                    + TraceReader.describe(table, trace.type(), trace.process(), trace.time(), trace.slice()));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.*;
+
+/**
+ * Bounded LRU cache of simulation results. Entries are keyed by the
+ * workload's {@link ProcessTable#fingerprint} plus a description of the
+ * configuration (algorithm, parameters, CPUs), and the bound is the total
+ * estimated heap size of the cached values rather than their number, since
+ * one result can be a thousand times larger than another. A key keeps its
+ * workload, and a lookup only hits when the cached workload is the same
+ * process for process, so a fingerprint collision costs a miss, never a
+ * wrong result.
+ *
+ * Cached values are shared, so they must not be modified. Thread-safe.
+ */
+public class ResultCache<V> {
+
+    public static final class Key {
+        private final long fingerprint;
+        private final int size;
+        private final String config;
+        private final ProcessTable workload;
+
+        // workload must not change while the key is in use
+        public Key(ProcessTable workload, String config) {
+            this.fingerprint = workload.fingerprint();
+            this.size = workload.size();
+            this.config = config;
+            this.workload = workload;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return fingerprint == k.fingerprint && size == k.size && config.equals(k.config)
+                    && workload.sameWorkload(k.workload);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint) * 31 + config.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x/%d %s", fingerprint, size, config);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long bytes;
+
+        Entry(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public ResultCache(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("Cache size must be > 0");
+        this.maxBytes = maxBytes;
+    }
+
+    // The cached value, now most recently used, or null
+    public synchronized V get(Key key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Caches value under key, evicting least recently used entries until the
+     * total fits. A value larger than the whole cache is not kept.
+     */
+    public synchronized void put(Key key, V value, long valueBytes) {
+        Entry<V> old = entries.remove(key);
+        if (old != null) bytes -= old.bytes;
+        if (valueBytes > maxBytes) return;
+        entries.put(key, new Entry<>(value, valueBytes));
+        bytes += valueBytes;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Estimated bytes of all cached values
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
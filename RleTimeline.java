@@ -0,0 +1,68 @@
+import java.util.*;
+
+/**
+ * In-memory timeline stored run-length encoded in parallel int arrays.
+ * A slice that continues the previous one for the same process (or idle
+ * period) extends it instead of adding an entry.
+ */
+public class RleTimeline implements TimelineSink {
+    private int[] pids;
+    private int[] starts;
+    private int[] ends;
+    private int size;
+
+    public RleTimeline() {
+        this(16);
+    }
+
+    public RleTimeline(int capacity) {
+        capacity = Math.max(capacity, 1);
+        pids = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+    }
+
+    @Override
+    public void slice(int p, int start, int end) {
+        if (size > 0 && pids[size - 1] == p && ends[size - 1] == start) {
+            ends[size - 1] = end;
+            return;
+        }
+        if (size == pids.length) {
+            int capacity = size * 2;
+            pids = Arrays.copyOf(pids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        pids[size] = p;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Process index of block i, or TimelineSink.IDLE
+    public int pid(int i) {
+        return pids[i];
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    // Heap bytes of the block arrays
+    long memoryFootprint() {
+        return 12L * pids.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,49 @@
+public class RoundRobinPolicy implements SchedulingPolicy {
+    private final int quantum;
+    private final IntRingBuffer queue = new IntRingBuffer();
+
+    public RoundRobinPolicy(int quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("Quantum must be > 0");
+        this.quantum = quantum;
+    }
+
+    @Override
+    public String getName() {
+        return "Round Robin";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        queue.clear();
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        queue.add(p);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return queue.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        return queue.poll();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return quantum;
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        queue.add(p);
+    }
+}
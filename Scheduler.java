@@ -1,4 +1,3 @@
-import java.awt.Color;
 import java.util.*;
 
 public class Scheduler {
@@ -6,36 +5,54 @@ public class Scheduler {
         public String pid;
         public int start;
         public int end;
-        public Color color;
 
         public GanttBlock(String pid, int start, int end) {
             this.pid = pid;
             this.start = start;
             this.end = end;
-            this.color = null; // default color if none is given
         }
     }
 
-    private List<GanttBlock> ganttBlocks = new ArrayList<>();
+    // PID used for the explicit idle intervals in the Gantt output
+    public static final String IDLE_PID = "Idle";
+    // PID used for context switches when they have a cost
+    public static final String SWITCH_PID = "CS";
 
-    public List<GanttBlock> getGanttBlocks(Color[] colors) {
-        return ganttBlocks;
+    private SimulationResult lastResult;
+
+    // Gantt blocks of the last run, built from its run-length encoded timeline
+    public List<GanttBlock> getGanttBlocks() {
+        List<GanttBlock> blocks = new ArrayList<>();
+        RleTimeline timeline = lastResult == null ? null : lastResult.getTimeline();
+        if (timeline == null) return blocks;
+        for (int i = 0; i < timeline.size(); i++) {
+            blocks.add(new GanttBlock(lastResult.pid(timeline.pid(i)), timeline.start(i), timeline.end(i)));
+        }
+        return blocks;
     }
 
-    private List<Process> processes;
+    private final ProcessTable table;
+    private int switchCost;
 
     public Scheduler(List<Process> processes) {
-        this.processes = new ArrayList<>();
+        this.table = new ProcessTable(processes.size());
         for (Process p : processes) {
-            this.processes.add(new Process(p.pid, p.arrivalTime, p.burstTime));
+            table.add(p);
         }
     }
 
+    public Scheduler(ProcessTable table) {
+        this.table = table;
+    }
+
     public static class Process {
         public String pid;
         public int arrivalTime;
         public int burstTime;
         public int remainingTime;
+        public int[] bursts;    // CPU, I/O, CPU, ... times; null for a single CPU burst
+        public int nice;        // ProcessTable.MIN_NICE to MAX_NICE, used by CFS
+        public int priority;    // lower runs first under the priority policies
 
         public Process(String pid, int arrivalTime, int burstTime) {
             this.pid = pid;
@@ -43,285 +60,67 @@ public class Scheduler {
             this.burstTime = burstTime;
             this.remainingTime = burstTime;
         }
-    }
-
-    public String runFIFO() {
-        ganttBlocks.clear();
-
-        StringBuilder sb = new StringBuilder();
-        processes.sort(Comparator.comparingInt(p -> p.arrivalTime));
-        int currentTime = 0;
-        double totalWaiting = 0, totalTurnaround = 0;
-
-        sb.append("=== FIFO Scheduling ===\n");
-        sb.append(String.format("%-5s %-10s %-10s %-15s %-15s\n", "PID", "Arrival", "Burst", "Waiting", "Turnaround"));
 
-        for (Process p : processes) {
-            if (currentTime < p.arrivalTime) {
-                currentTime = p.arrivalTime;
-            }
-            int waiting = currentTime - p.arrivalTime;
-            int turnaround = waiting + p.burstTime;
-            ganttBlocks.add(new GanttBlock(p.pid, currentTime, currentTime + p.burstTime));
-            totalWaiting += waiting;
-            totalTurnaround += turnaround;
-
-            sb.append(String.format("%-5s %-10d %-10d %-15d %-15d\n", p.pid, p.arrivalTime, p.burstTime, waiting, turnaround));
-            currentTime += p.burstTime;
+        // Alternating CPU and I/O bursts; burstTime is the total CPU time
+        public Process(String pid, int arrivalTime, int[] bursts) {
+            this(pid, arrivalTime, cpuTime(bursts));
+            this.bursts = bursts.length == 1 ? null : bursts.clone();
         }
 
-        int n = processes.size();
-        sb.append(String.format("\nAverage Waiting Time: %.2f\n", totalWaiting / n));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", totalTurnaround / n));
-        return sb.toString();
+        private static int cpuTime(int[] bursts) {
+            int cpu = 0;
+            for (int b = 0; b < bursts.length; b += 2) cpu += bursts[b];
+            return cpu;
+        }
     }
 
-    public String runRR(int quantum) {
-        ganttBlocks.clear();
-
-        StringBuilder sb = new StringBuilder();
-        Queue<Process> queue = new LinkedList<>();
-        List<Process> arrivalList = new ArrayList<>(processes);
-        arrivalList.sort(Comparator.comparingInt(p -> p.arrivalTime));
-        int currentTime = 0;
-        double totalWaiting = 0, totalTurnaround = 0;
-        int index = 0;
-
-        sb.append("=== Round Robin Scheduling ===\n");
-        sb.append(String.format("%-5s %-10s %-10s %-15s %-15s\n", "PID", "Arrival", "Burst", "Waiting", "Turnaround"));
-
-        Map<String, Integer> startTimes = new HashMap<>();
-
-        while (!queue.isEmpty() || index < arrivalList.size()) {
-            while (index < arrivalList.size() && arrivalList.get(index).arrivalTime <= currentTime) {
-                queue.offer(arrivalList.get(index));
-                index++;
-            }
-
-            if (queue.isEmpty()) {
-                currentTime++;
-                continue;
-            }
-
-            Process p = queue.poll();
-
-            if (!startTimes.containsKey(p.pid)) {
-                startTimes.put(p.pid, currentTime);
-            }
-
-            int execTime = Math.min(quantum, p.remainingTime);
-            int startTime = currentTime;
-            currentTime += execTime;
-            p.remainingTime -= execTime;
+    // Context-switch cost for the following runs; see SimulationEngine.setSwitchCost
+    public Scheduler setSwitchCost(int switchCost) {
+        if (switchCost < 0) throw new IllegalArgumentException("Context switch cost must be >= 0");
+        this.switchCost = switchCost;
+        return this;
+    }
 
-            ganttBlocks.add(new GanttBlock(p.pid, startTime, currentTime));
+    // Runs the policy on this scheduler's workload; the Gantt blocks of the
+    // last run stay available through getGanttBlocks
+    public SimulationResult run(SchedulingPolicy policy) {
+        lastResult = new SimulationEngine().setSwitchCost(switchCost).run(table, policy);
+        return lastResult;
+    }
 
-            while (index < arrivalList.size() && arrivalList.get(index).arrivalTime <= currentTime) {
-                queue.offer(arrivalList.get(index));
-                index++;
-            }
+    // Reports progress to the monitor and stops when it asks to
+    public SimulationResult run(SchedulingPolicy policy, SimulationMonitor monitor) {
+        lastResult = new SimulationEngine(monitor).setSwitchCost(switchCost).run(table, policy);
+        return lastResult;
+    }
 
-            if (p.remainingTime > 0) {
-                queue.offer(p);
-            } else {
-                int turnaround = currentTime - p.arrivalTime;
-                int waiting = turnaround - p.burstTime;
-                totalWaiting += waiting;
-                totalTurnaround += turnaround;
+    // Metrics-style run that streams the timeline to the given sink instead
+    public SimulationResult run(SchedulingPolicy policy, TimelineSink sink) {
+        lastResult = new SimulationEngine().setSwitchCost(switchCost).run(table, policy, sink);
+        return lastResult;
+    }
 
-                sb.append(String.format("%-5s %-10d %-10d %-15d %-15d\n",
-                        p.pid, p.arrivalTime, p.burstTime, waiting, turnaround));
-            }
-        }
+    public String runFIFO() {
+        return run(new FifoPolicy()).getReport();
+    }
 
-        int n = processes.size();
-        sb.append(String.format("\nAverage Waiting Time: %.2f\n", totalWaiting / n));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", totalTurnaround / n));
-        return sb.toString();
+    public String runRR(int quantum) {
+        return run(new RoundRobinPolicy(quantum)).getReport();
     }
 
     public String runSJF() {
-        ganttBlocks.clear();
-
-        StringBuilder sb = new StringBuilder();
-        List<Process> all = new ArrayList<>(processes);
-        int time = 0, completed = 0;
-        double totalWaiting = 0, totalTurnaround = 0;
-        boolean[] done = new boolean[all.size()];
-
-        sb.append("=== SJF (Non-Preemptive) Scheduling ===\n");
-        sb.append(String.format("%-5s %-10s %-10s %-15s %-15s\n", "PID", "Arrival", "Burst", "Waiting", "Turnaround"));
-
-        while (completed < all.size()) {
-            List<Process> ready = new ArrayList<>();
-            for (int i = 0; i < all.size(); i++) {
-                if (!done[i] && all.get(i).arrivalTime <= time) {
-                    ready.add(all.get(i));
-                }
-            }
-
-            if (ready.isEmpty()) {
-                time++;
-                continue;
-            }
-
-            ready.sort(Comparator.comparingInt(p -> p.burstTime));
-            Process current = ready.get(0);
-            int index = all.indexOf(current);
-
-            int waiting = time - current.arrivalTime;
-            if (waiting < 0) waiting = 0;
-            ganttBlocks.add(new GanttBlock(current.pid, time, time + current.burstTime));
-
-            time += current.burstTime;
-            int turnaround = time - current.arrivalTime;
-
-            totalWaiting += waiting;
-            totalTurnaround += turnaround;
-            done[index] = true;
-            completed++;
-
-            sb.append(String.format("%-5s %-10d %-10d %-15d %-15d\n", current.pid, current.arrivalTime, current.burstTime, waiting, turnaround));
-        }
-
-        int n = all.size();
-        sb.append(String.format("\nAverage Waiting Time: %.2f\n", totalWaiting / n));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", totalTurnaround / n));
-        return sb.toString();
+        return run(new SjfPolicy()).getReport();
     }
 
     public String runSRTF() {
-        ganttBlocks.clear();
-
-        StringBuilder sb = new StringBuilder();
-        List<Process> all = new ArrayList<>(processes);
-        int time = 0, completed = 0;
-        double totalWaiting = 0, totalTurnaround = 0;
-
-        sb.append("=== SRTF (Preemptive SJF) Scheduling ===\n");
-        sb.append(String.format("%-5s %-10s %-10s %-15s %-15s\n", "PID", "Arrival", "Burst", "Waiting", "Turnaround"));
-
-        Process lastProcess = null;
-        int startTime = 0;
-
-        while (completed < all.size()) {
-            List<Process> ready = new ArrayList<>();
-            for (Process p : all) {
-                if (p.arrivalTime <= time && p.remainingTime > 0) {
-                    ready.add(p);
-                }
-            }
-
-            if (ready.isEmpty()) {
-                time++;
-                continue;
-            }
-
-            ready.sort(Comparator.comparingInt(p -> p.remainingTime));
-            Process current = ready.get(0);
-
-            if (lastProcess != null && !lastProcess.pid.equals(current.pid)) {
-                ganttBlocks.add(new GanttBlock(lastProcess.pid, startTime, time));
-                startTime = time;
-            }
-
-            if (lastProcess == null || !lastProcess.pid.equals(current.pid)) {
-                startTime = time;
-            }
-
-            current.remainingTime--;
-            time++;
-
-            if (current.remainingTime == 0) {
-                ganttBlocks.add(new GanttBlock(current.pid, startTime, time));
-                int turnaround = time - current.arrivalTime;
-                int waiting = turnaround - current.burstTime;
-                totalWaiting += waiting;
-                totalTurnaround += turnaround;
-                completed++;
-
-                sb.append(String.format("%-5s %-10d %-10d %-15d %-15d\n", current.pid, current.arrivalTime, current.burstTime, waiting, turnaround));
-                lastProcess = null;
-            } else {
-                lastProcess = current;
-            }
-        }
-
-        int n = all.size();
-        sb.append(String.format("\nAverage Waiting Time: %.2f\n", totalWaiting / n));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", totalTurnaround / n));
-        return sb.toString();
+        return run(new SrtfPolicy()).getReport();
     }
 
     public String runMLFQ(int[] quanta) {
-        ganttBlocks.clear();
-
-        StringBuilder sb = new StringBuilder();
-        int numQueues = quanta.length;
-        List<Queue<Process>> queues = new ArrayList<>();
-        for (int i = 0; i < numQueues; i++) queues.add(new LinkedList<>());
-
-        List<Process> arrivalList = new ArrayList<>(processes);
-        arrivalList.sort(Comparator.comparingInt(p -> p.arrivalTime));
-
-        int currentTime = 0;
-        int index = 0;
-        double totalWaiting = 0, totalTurnaround = 0;
-        int completed = 0;
-        Map<Process, Integer> levelMap = new HashMap<>();
-
-        sb.append("=== MLFQ Scheduling ===\n");
-        sb.append(String.format("%-5s %-10s %-10s %-15s %-15s\n", "PID", "Arrival", "Burst", "Waiting", "Turnaround"));
-
-        while (completed < processes.size()) {
-            while (index < arrivalList.size() && arrivalList.get(index).arrivalTime <= currentTime) {
-                Process p = arrivalList.get(index);
-                queues.get(0).add(p);
-                levelMap.put(p, 0);
-                index++;
-            }
-
-            boolean executed = false;
-            for (int i = 0; i < queues.size(); i++) {
-                if (!queues.get(i).isEmpty()) {
-                    Process p = queues.get(i).poll();
-                    int exec = Math.min(p.remainingTime, quanta[i]);
-
-                    ganttBlocks.add(new GanttBlock(p.pid, currentTime, currentTime + exec));
-                    p.remainingTime -= exec;
-                    currentTime += exec;
-
-                    while (index < arrivalList.size() && arrivalList.get(index).arrivalTime <= currentTime) {
-                        Process newP = arrivalList.get(index);
-                        queues.get(0).add(newP);
-                        levelMap.put(newP, 0);
-                        index++;
-                    }
-
-                    if (p.remainingTime > 0) {
-                        int nextLevel = Math.min(i + 1, queues.size() - 1);
-                        queues.get(nextLevel).add(p);
-                        levelMap.put(p, nextLevel);
-                    } else {
-                        int turnaround = currentTime - p.arrivalTime;
-                        int waiting = turnaround - p.burstTime;
-                        totalWaiting += waiting;
-                        totalTurnaround += turnaround;
-                        completed++;
-                        sb.append(String.format("%-5s %-10d %-10d %-15d %-15d\n", p.pid, p.arrivalTime, p.burstTime, waiting, turnaround));
-                    }
-
-                    executed = true;
-                    break;
-                }
-            }
-
-            if (!executed) currentTime++;
-        }
+        return run(new MlfqPolicy(quanta)).getReport();
+    }
 
-        int n = processes.size();
-        sb.append(String.format("\nAverage Waiting Time: %.2f\n", totalWaiting / n));
-        sb.append(String.format("Average Turnaround Time: %.2f\n", totalTurnaround / n));
-        return sb.toString();
+    public String runMLFQ(int[] quanta, int boostInterval) {
+        return run(new MlfqPolicy(quanta, boostInterval)).getReport();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,458 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Headless entry point for batch runs, next to SchedulerGUI.main.
+ *
+ * <pre>
+ * java SchedulerCLI --input workload.csv --algorithm "Round Robin" --quantum 4
+ *                   [--quanta 2,4,8,16] [--boost 100] [--output report.txt]
+ *                   [--timeline timeline.csv] [--summary]
+ *                   [--cpus 8 [--balancing work-stealing]] [--record trace.bin]
+ *                   [--switch-cost 1]
+ * java SchedulerCLI --input workload.csv --algorithm CFS [--latency 24] [--min-granularity 3]
+ * java SchedulerCLI --input workload.csv --algorithm "Preemptive Priority" [--aging 10]
+ *
+ * java SchedulerCLI --replay trace.bin [--algorithm SRTF]
+ * java SchedulerCLI --verify trace.bin --algorithm MLFQ --quanta 2,4,8
+ *
+ * java SchedulerCLI --input workload.csv --sweep-quantum 1:20
+ * java SchedulerCLI --input workload.csv --sweep-quanta 1:4/2,4,8/8:16:4/16
+ * java SchedulerCLI --input workload.csv --compare --quantum 4 --quanta 2,4,8
+ *
+ * java SchedulerCLI --stream poisson --rate 0.2 --mean-burst 4 --seed 7
+ *                   --algorithm MLFQ --horizon 10000000 [--window 1000 [--step 100]]
+ * java SchedulerCLI --stream trace --input trace.csv --algorithm SRTF --horizon 500000
+ * java SchedulerCLI --stream generated --arrivals bursty --bursts pareto --rate 0.09
+ *                   --mean-burst 10 --seed 7 --algorithm CFS --horizon 10000000
+ *
+ * java SchedulerCLI --generate 1000000 --bursts bimodal --rate 0.09 --mean-burst 10
+ *                   --seed 7 --algorithm SRTF --summary
+ * </pre>
+ *
+ * The sweep options evaluate every value (or, for MLFQ, every combination of
+ * the per-level values separated by '/') in parallel and print a ranked
+ * table; see {@link ParameterSweep#parseValues}. --compare runs every
+ * registered algorithm at once (see {@link PolicyComparison}) and prints them
+ * side by side; algorithms whose parameters are missing are listed as skipped.
+ *
+ * The workload can be CSV or the binary format described in
+ * {@link WorkloadReader}. Without --timeline the timeline is discarded.
+ * With more than one CPU (see {@link MultiCoreEngine}) each core's timeline
+ * goes to its own file, e.g. timeline.cpu0.csv, and the report ends with
+ * per-core metrics.
+ *
+ * --switch-cost charges that much CPU time for every context switch (one
+ * CPU only). Bursts in the CSV may be CPU;I/O;CPU;... sequences, and
+ * optional fourth and fifth columns set each process's nice value for CFS
+ * and its priority for the priority policies.
+ *
+ * --record logs the workload and every decision of a single-CPU run to a
+ * binary trace (see {@link TraceWriter}). --replay runs the trace again,
+ * either with the recorded decisions or, given --algorithm, with another
+ * policy on the recorded workload. --verify checks that a policy makes
+ * exactly the recorded decisions and exits with 1 at the first difference.
+ *
+ * --stream runs an open system (see {@link StreamingEngine}) and prints one
+ * line of sliding-window metrics every step time units, then the totals.
+ *
+ * --generate replaces --input with a synthetic workload of that many
+ * processes (see {@link WorkloadGenerator}): --arrivals poisson|bursty
+ * [--batch n], --bursts exponential|pareto|bimodal [--shape s], --rate,
+ * --mean-burst and --seed. --stream generated feeds the same processes to
+ * the streaming engine as they are drawn.
+ *
+ * Start the JVM with -Dscheduler.stats=true to watch the engines through JMX
+ * and JDK Flight Recorder; see {@link SchedulerStats}.
+ */
+public class SchedulerCLI {
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println(usage());
+            System.exit(2);
+        } catch (IOException | UncheckedIOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("help")) {
+            System.out.println(usage());
+            return 0;
+        }
+
+        if (options.containsKey("stream")) {
+            return stream(options);
+        }
+        if (options.containsKey("replay") || options.containsKey("verify")) {
+            return replay(options);
+        }
+        if (options.containsKey("sweep-quantum") || options.containsKey("sweep-quanta")) {
+            return sweep(options, workload(options));
+        }
+        if (options.containsKey("compare")) {
+            return compare(options, workload(options));
+        }
+        String algorithm = algorithmName(require(options, "algorithm"));
+        PolicyParams params = policyParams(options);
+        SchedulingPolicy policy = PolicyRegistry.create(algorithm, params);
+
+        ProcessTable table = workload(options);
+        int cpus = options.containsKey("cpus") ? parseInt("cpus", options.get("cpus")) : 1;
+        int switchCost = options.containsKey("switch-cost") ? parseInt("switch-cost", options.get("switch-cost")) : 0;
+        if (cpus > 1 || options.containsKey("balancing")) {
+            if (options.containsKey("record")) throw new IllegalArgumentException("--record needs a single-CPU run");
+            if (switchCost > 0) throw new IllegalArgumentException("--switch-cost needs a single-CPU run");
+            MultiCoreEngine.Balancing balancing = options.containsKey("balancing")
+                    ? MultiCoreEngine.Balancing.parse(options.get("balancing"))
+                    : MultiCoreEngine.Balancing.GLOBAL;
+            return runMultiCore(options, table, new MultiCoreEngine(cpus, balancing), algorithm, params);
+        }
+        SimulationResult result;
+        if (options.containsKey("record")) {
+            try (TraceWriter trace = new TraceWriter(Paths.get(options.get("record")), table,
+                    policy.getName(), policy.isPreemptive(), switchCost)) {
+                result = runSingle(options, table, new RecordingPolicy(policy, trace), switchCost);
+            }
+        } else {
+            result = runSingle(options, table, policy, switchCost);
+        }
+        writeResult(options, (out, summary) -> write(result, out, summary));
+        return 0;
+    }
+
+    private static int replay(Map<String, String> options) throws IOException {
+        boolean verify = options.containsKey("verify");
+        Path file = Paths.get(options.get(verify ? "verify" : "replay"));
+        try (TraceReader trace = new TraceReader(file)) {
+            ProcessTable table = trace.getWorkload();
+            if (verify) {
+                String algorithm = algorithmName(require(options, "algorithm"));
+                TraceVerifier verifier = new TraceVerifier(PolicyRegistry.create(algorithm, policyParams(options)), trace);
+                try {
+                    new SimulationEngine().setSwitchCost(trace.getSwitchCost())
+                            .run(table, verifier, NullTimelineSink.INSTANCE);
+                    long events = verifier.finish();
+                    System.out.println("Verified " + events + " events of " + trace.getPolicy() + " trace " + file);
+                    return 0;
+                } catch (IllegalStateException ex) {
+                    System.err.println("Verification failed: " + ex.getMessage());
+                    return 1;
+                }
+            }
+            // Another policy may change the switch cost; the recorded decisions need the recorded one
+            int switchCost = trace.getSwitchCost();
+            SchedulingPolicy policy;
+            if (options.containsKey("algorithm")) {
+                policy = PolicyRegistry.create(algorithmName(options.get("algorithm")), policyParams(options));
+                if (options.containsKey("switch-cost")) switchCost = parseInt("switch-cost", options.get("switch-cost"));
+            } else {
+                policy = new ReplayPolicy(trace);
+            }
+            SimulationResult result = runSingle(options, table, policy, switchCost);
+            writeResult(options, (out, summary) -> write(result, out, summary));
+            return 0;
+        }
+    }
+
+    private static SimulationResult runSingle(Map<String, String> options, ProcessTable table, SchedulingPolicy policy,
+                                              int switchCost) throws IOException {
+        Scheduler scheduler = new Scheduler(table).setSwitchCost(switchCost);
+        if (options.containsKey("timeline")) {
+            try (FileTimelineSink sink = new FileTimelineSink(Paths.get(options.get("timeline")), table)) {
+                return scheduler.run(policy, sink);
+            }
+        }
+        return scheduler.run(policy, NullTimelineSink.INSTANCE);
+    }
+
+    // Writes a report or, with --summary, a summary to --output or stdout
+    private static void writeResult(Map<String, String> options, Report report) throws IOException {
+        boolean summary = options.containsKey("summary");
+        if (options.containsKey("output")) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(options.get("output")), StandardCharsets.UTF_8)) {
+                report.write(out, summary);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            report.write(out, summary);
+            out.flush();
+        }
+    }
+
+    private interface Report {
+        void write(Writer out, boolean summary) throws IOException;
+    }
+
+    private static int runMultiCore(Map<String, String> options, ProcessTable table, MultiCoreEngine engine,
+                                    String algorithm, PolicyParams params) throws IOException {
+        int cpus = engine.cpus();
+        TimelineSink[] sinks = new TimelineSink[cpus];
+        Arrays.fill(sinks, NullTimelineSink.INSTANCE);
+        MultiCoreResult result;
+        try {
+            if (options.containsKey("timeline")) {
+                Path timeline = Paths.get(options.get("timeline"));
+                for (int c = 0; c < cpus; c++) sinks[c] = new FileTimelineSink(coreFile(timeline, c), table);
+            }
+            result = engine.run(table, () -> PolicyRegistry.create(algorithm, params), sinks);
+        } finally {
+            for (TimelineSink sink : sinks) {
+                if (sink instanceof Closeable) ((Closeable) sink).close();
+            }
+        }
+
+        writeResult(options, (out, summary) -> write(result, out, summary));
+        return 0;
+    }
+
+    // timeline.csv -> timeline.cpu3.csv
+    static Path coreFile(Path timeline, int core) {
+        String name = timeline.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String coreName = dot < 0 ? name + ".cpu" + core : name.substring(0, dot) + ".cpu" + core + name.substring(dot);
+        return timeline.resolveSibling(coreName);
+    }
+
+    private static int sweep(Map<String, String> options, ProcessTable table) throws IOException {
+        ParameterSweep sweep = new ParameterSweep(table);
+        if (options.containsKey("switch-cost")) sweep.setSwitchCost(parseInt("switch-cost", options.get("switch-cost")));
+        String report;
+        if (options.containsKey("sweep-quantum")) {
+            int[] quanta = ParameterSweep.parseValues(options.get("sweep-quantum"));
+            report = ParameterSweep.format("Round Robin", sweep.roundRobin(quanta));
+        } else {
+            String[] levels = options.get("sweep-quanta").split("/");
+            int[][] candidates = new int[levels.length][];
+            for (int i = 0; i < levels.length; i++) candidates[i] = ParameterSweep.parseValues(levels[i]);
+            int boost = options.containsKey("boost") ? parseInt("boost", options.get("boost")) : 0;
+            report = ParameterSweep.format("MLFQ", sweep.mlfq(candidates, boost));
+        }
+
+        if (options.containsKey("output")) {
+            Files.write(Paths.get(options.get("output")), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.print(report);
+        }
+        return 0;
+    }
+
+    // --input file, or --generate count
+    private static ProcessTable workload(Map<String, String> options) throws IOException {
+        if (options.containsKey("generate")) {
+            if (options.containsKey("input")) throw new IllegalArgumentException("Use either --input or --generate");
+            return generator(options).generate(parseInt("generate", options.get("generate")));
+        }
+        return WorkloadReader.read(Paths.get(require(options, "input")));
+    }
+
+    private static WorkloadGenerator generator(Map<String, String> options) {
+        long seed = options.containsKey("seed") ? parseLong("seed", options.get("seed")) : 1;
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        if (options.containsKey("arrivals")) {
+            generator.setArrivals(parseEnum(WorkloadGenerator.Arrivals.class, "arrivals", options.get("arrivals")));
+        }
+        if (options.containsKey("bursts")) {
+            generator.setBursts(parseEnum(WorkloadGenerator.Bursts.class, "bursts", options.get("bursts")));
+        }
+        if (options.containsKey("rate")) generator.setRate(parseDouble("rate", options.get("rate")));
+        if (options.containsKey("mean-burst")) generator.setMeanBurst(parseDouble("mean-burst", options.get("mean-burst")));
+        if (options.containsKey("batch")) generator.setBatchSize(parseDouble("batch", options.get("batch")));
+        if (options.containsKey("shape")) generator.setParetoShape(parseDouble("shape", options.get("shape")));
+        return generator;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("--" + name + " must be one of "
+                    + Arrays.toString(type.getEnumConstants()).toLowerCase(Locale.ROOT) + ": " + value);
+        }
+    }
+
+    private static int compare(Map<String, String> options, ProcessTable table) throws IOException {
+        PolicyComparison comparison = new PolicyComparison(table, policyParams(options));
+        if (options.containsKey("switch-cost")) comparison.setSwitchCost(parseInt("switch-cost", options.get("switch-cost")));
+        List<PolicyComparison.Entry> entries = comparison.run();
+        String report = PolicyComparison.format(entries, comparison.elapsedNanos());
+
+        if (options.containsKey("output")) {
+            Files.write(Paths.get(options.get("output")), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.print(report);
+        }
+        return 0;
+    }
+
+    private static int stream(Map<String, String> options) throws IOException {
+        String algorithm = algorithmName(require(options, "algorithm"));
+        SchedulingPolicy policy = PolicyRegistry.create(algorithm, policyParams(options));
+
+        int horizon = parseInt("horizon", require(options, "horizon"));
+        int window = options.containsKey("window") ? parseInt("window", options.get("window")) : 1000;
+        int step = options.containsKey("step") ? parseInt("step", options.get("step")) : Math.max(1, window / 10);
+        if (step <= 0 || window < step || window % step != 0) {
+            throw new IllegalArgumentException("--window must be a positive multiple of --step");
+        }
+        StreamingEngine engine = new StreamingEngine(policy, step, window / step);
+
+        String source = options.get("stream");
+        ArrivalStream arrivals;
+        if (source.equalsIgnoreCase("poisson")) {
+            double rate = parseDouble("rate", require(options, "rate"));
+            double meanBurst = parseDouble("mean-burst", require(options, "mean-burst"));
+            long seed = options.containsKey("seed") ? parseLong("seed", options.get("seed")) : 1;
+            arrivals = new PoissonArrivals(rate, meanBurst, seed);
+        } else if (source.equalsIgnoreCase("trace")) {
+            arrivals = new TraceArrivals(Paths.get(require(options, "input")));
+        } else if (source.equalsIgnoreCase("generated")) {
+            arrivals = generator(options).stream();
+        } else {
+            throw new IllegalArgumentException("--stream must be poisson, trace or generated: " + source);
+        }
+
+        Writer out = options.containsKey("output")
+                ? Files.newBufferedWriter(Paths.get(options.get("output")), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            out.write(WindowStats.HEADER);
+            out.write('\n');
+            StreamingResult result = engine.run(arrivals, horizon, stats -> {
+                try {
+                    out.write(stats.toString());
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.write('\n');
+            out.write(result.getReport());
+        } finally {
+            if (arrivals instanceof Closeable) ((Closeable) arrivals).close();
+            if (options.containsKey("output")) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        }
+        return 0;
+    }
+
+    private static void write(SimulationResult result, Writer out, boolean summary) throws IOException {
+        if (summary) {
+            result.writeSummary(out);
+        } else {
+            result.writeReport(out);
+        }
+    }
+
+    private static void write(MultiCoreResult result, Writer out, boolean summary) throws IOException {
+        if (summary) {
+            result.writeSummary(out);
+        } else {
+            result.writeReport(out);
+        }
+    }
+
+    static PolicyParams policyParams(Map<String, String> options) {
+        PolicyParams params = new PolicyParams();
+        if (options.containsKey("quantum")) params.setQuantum(parseInt("quantum", options.get("quantum")));
+        if (options.containsKey("quanta")) params.setMlfqQuanta(parseInts("quanta", options.get("quanta")));
+        if (options.containsKey("boost")) params.setMlfqBoost(parseInt("boost", options.get("boost")));
+        if (options.containsKey("aging")) params.setAgingInterval(parseInt("aging", options.get("aging")));
+        if (options.containsKey("latency")) params.setCfsLatency(parseInt("latency", options.get("latency")));
+        if (options.containsKey("min-granularity")) {
+            params.setCfsMinGranularity(parseInt("min-granularity", options.get("min-granularity")));
+        }
+        return params;
+    }
+
+    // Accepts the registry names case-insensitively, plus "RR" for Round Robin
+    static String algorithmName(String name) {
+        if (name.equalsIgnoreCase("RR")) name = "Round Robin";
+        for (String registered : PolicyRegistry.names()) {
+            if (registered.equalsIgnoreCase(name)) return registered;
+        }
+        throw new IllegalArgumentException("Unknown algorithm \"" + name + "\". Known: " + PolicyRegistry.names());
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+            String key = arg.substring(2);
+            if (key.equals("summary") || key.equals("help") || key.equals("compare")) {
+                options.put(key, "");
+            } else {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+                options.put(key, args[++i]);
+            }
+        }
+        return options;
+    }
+
+    static String require(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null) throw new IllegalArgumentException("--" + key + " is required");
+        return value;
+    }
+
+    static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("--" + name + " must be an integer: " + value);
+        }
+    }
+
+    static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("--" + name + " must be an integer: " + value);
+        }
+    }
+
+    static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("--" + name + " must be a number: " + value);
+        }
+    }
+
+    static int[] parseInts(String name, String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) result[i] = parseInt(name, parts[i]);
+        return result;
+    }
+
+    private static String usage() {
+        return "Usage: java SchedulerCLI --input <workload.csv|.bin> --algorithm <" + String.join("|", PolicyRegistry.names()) + ">\n"
+                + "       [--quantum <n>] [--quanta <q0,q1,...>] [--boost <n>]\n"
+                + "       [--output <file>] [--timeline <file.csv>] [--summary]\n"
+                + "       [--cpus <n>] [--balancing <global|partitioned|work-stealing>] [--record <trace.bin>]\n"
+                + "       [--switch-cost <n>] [--latency <n>] [--min-granularity <n>] [--aging <n>]\n"
+                + "   or: java SchedulerCLI --replay <trace.bin> [--algorithm <name> ...] [--output <file>] [--summary]\n"
+                + "   or: java SchedulerCLI --verify <trace.bin> --algorithm <name> [--quantum <n>] [--quanta <list>] [--boost <n>]\n"
+                + "   or: java SchedulerCLI --input <workload> (--sweep-quantum <values> | --sweep-quanta <values>/<values>/...)\n"
+                + "       values are lists and ranges such as 4, 1:10, 1:20:2 or 2,4,8\n"
+                + "   or: java SchedulerCLI --input <workload> --compare [policy options] [--switch-cost <n>] [--output <file>]\n"
+                + "   or: java SchedulerCLI --stream <poisson|trace|generated> --algorithm <name> --horizon <t>\n"
+                + "       [--rate <r> --mean-burst <b> [--seed <n>]] [--input <trace.csv>] [--window <t> [--step <t>]]\n"
+                + "   --generate <count> can replace --input, and --stream generated draws processes as it runs:\n"
+                + "       [--arrivals <poisson|bursty> [--batch <n>]] [--bursts <exponential|pareto|bimodal> [--shape <s>]]\n"
+                + "       [--rate <r>] [--mean-burst <b>] [--seed <n>]";
+    }
+}
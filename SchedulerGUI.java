@@ -9,15 +9,27 @@ public class SchedulerGUI extends JFrame {
     private JTable table;
     private JTextArea outputArea;
     private JComboBox<String> algorithmBox;
+    private JCheckBox compareBox;
     private JTextField timeQuantumField;
     private DefaultTableModel tableModel;
     private GanttChartPanel ganttChartPanel;
-    private JTextField mlfqQ0Field;
-    private JTextField mlfqQ1Field;
-    private JTextField mlfqQ2Field;
-    private JTextField mlfqQ3Field;
+    private JTextField mlfqQuantaField;
+    private JTextField mlfqBoostField;
+    private JTextField cfsLatencyField;
+    private JTextField cfsGranularityField;
+    private JTextField agingField;
+    private JTextField cpusField;
+    private JTextField switchCostField;
+    private JComboBox<MultiCoreEngine.Balancing> balancingBox;
+    private RoundedButton runButton;
+    private RoundedButton cancelButton;
+    private JProgressBar progressBar;
+    private SwingWorker<?, ?> worker;
+    // Finished runs by workload and settings; a quarter of the heap at most
+    private final ResultCache<Object> resultCache = new ResultCache<>(Runtime.getRuntime().maxMemory() / 4);
 
     private final Color backgroundDark = new Color(30, 30, 30);
+    private static final String[] COLUMNS = {"PID", "Arrival Time", "Burst Time", "Nice", "Priority"};
 
     public SchedulerGUI() {
 
@@ -30,14 +42,12 @@ public class SchedulerGUI extends JFrame {
         titleLabel.setForeground(Color.GREEN);
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        algorithmBox = new JComboBox<>(new String[]{
-            "FIFO", "SJF", "SRTF", "Round Robin", "MLFQ"
-        });
+        algorithmBox = new JComboBox<>(PolicyRegistry.names().toArray(new String[0]));
 
         timeQuantumField = new JTextField(5);
         RoundedButton addRowButton = new RoundedButton("Add Process", 20);
         RoundedButton randomButton = new RoundedButton("Generate Random", 20);
-        RoundedButton runButton = new RoundedButton("Run Simulation", 20);
+        runButton = new RoundedButton("Run Simulation", 20);
 
         styleButton(addRowButton);
         styleButton(randomButton);
@@ -49,44 +59,94 @@ public class SchedulerGUI extends JFrame {
         JPanel algoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         algoPanel.add(new JLabel("Algorithm:"));
         algoPanel.add(algorithmBox);
+        compareBox = new JCheckBox("Compare all");
+        compareBox.setOpaque(false);
+        compareBox.setToolTipText("Run every algorithm at once on this workload and show them side by side");
+        algoPanel.add(compareBox);
 
         JPanel quantumPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         quantumPanel.add(new JLabel("Quantum (For RR):"));
         quantumPanel.add(timeQuantumField);
 
-        JPanel mlfqQ0Panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        mlfqQ0Panel.add(new JLabel("Q0 (For MLFQ):"));
-        mlfqQ0Field = new JTextField(10);
-        mlfqQ0Panel.add(mlfqQ0Field); 
-
-        JPanel mlfqQ1Panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        mlfqQ1Panel.add(new JLabel("Q1 (For MLFQ):"));
-        mlfqQ1Field = new JTextField(10);
-        mlfqQ1Panel.add(mlfqQ1Field);
-
-        JPanel mlfqQ2Panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        mlfqQ2Panel.add(new JLabel("Q2 (For MLFQ):"));
-        mlfqQ2Field = new JTextField(10);
-        mlfqQ2Panel.add(mlfqQ2Field);
-
-        JPanel mlfqQ3Panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        mlfqQ3Panel.add(new JLabel("Q3 (For MLFQ):"));
-        mlfqQ3Field = new JTextField(10);
-        mlfqQ3Panel.add(mlfqQ3Field);
+        // One quantum per level, e.g. "2,4,8,16"; any number of levels
+        JPanel mlfqQuantaPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        mlfqQuantaPanel.add(new JLabel("Quanta (For MLFQ):"));
+        mlfqQuantaField = new JTextField(14);
+        mlfqQuantaField.setToolTipText("Comma-separated quantum per level, highest priority first, e.g. 2,4,8,16");
+        mlfqQuantaPanel.add(mlfqQuantaField);
+
+        JPanel mlfqBoostPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        mlfqBoostPanel.add(new JLabel("Boost every (For MLFQ):"));
+        mlfqBoostField = new JTextField(6);
+        mlfqBoostField.setToolTipText("Move every process back to the top queue this often; empty for no boost");
+        mlfqBoostPanel.add(mlfqBoostField);
+
+        // Empty fields use CfsPolicy's defaults
+        JPanel cfsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        cfsPanel.add(new JLabel("Latency (For CFS):"));
+        cfsLatencyField = new JTextField(4);
+        cfsLatencyField.setToolTipText("Period shared by the runnable processes; default " + CfsPolicy.DEFAULT_LATENCY);
+        cfsPanel.add(cfsLatencyField);
+        cfsPanel.add(new JLabel("Min granularity:"));
+        cfsGranularityField = new JTextField(4);
+        cfsGranularityField.setToolTipText("Shortest slice; default " + CfsPolicy.DEFAULT_MIN_GRANULARITY);
+        cfsPanel.add(cfsGranularityField);
+
+        JPanel agingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        agingPanel.add(new JLabel("Aging every (For Priority):"));
+        agingField = new JTextField(6);
+        agingField.setToolTipText("Waiting processes gain one priority level this often; empty for no aging");
+        agingPanel.add(agingField);
+
+        JPanel cpuPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        cpuPanel.add(new JLabel("CPUs:"));
+        cpusField = new JTextField("1", 4);
+        cpuPanel.add(cpusField);
+        cpuPanel.add(new JLabel("Balancing:"));
+        balancingBox = new JComboBox<>(MultiCoreEngine.Balancing.values());
+        cpuPanel.add(balancingBox);
+        cpuPanel.add(new JLabel("Switch cost:"));
+        switchCostField = new JTextField("0", 3);
+        switchCostField.setToolTipText("CPU time every context switch takes (one CPU only)");
+        cpuPanel.add(switchCostField);
 
         JTextField numPIDsField = new JTextField(4); 
 
         JPanel numPIDsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         numPIDsPanel.add(new JLabel("No. of PIDs:"));
         numPIDsPanel.add(numPIDsField);
+        // Same seed, same workload; left empty, a fresh seed is drawn and reported
+        JTextField seedField = new JTextField(10);
+        seedField.setToolTipText("Seed for Generate Random; empty for a new random workload");
+        numPIDsPanel.add(new JLabel("Seed:"));
+        numPIDsPanel.add(seedField);
+
+        // Distributions for Generate Random, see WorkloadGenerator
+        JPanel distributionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JComboBox<WorkloadGenerator.Arrivals> arrivalsBox = new JComboBox<>(WorkloadGenerator.Arrivals.values());
+        JComboBox<WorkloadGenerator.Bursts> burstsBox = new JComboBox<>(WorkloadGenerator.Bursts.values());
+        distributionPanel.add(new JLabel("Arrivals:"));
+        distributionPanel.add(arrivalsBox);
+        distributionPanel.add(new JLabel("Bursts:"));
+        distributionPanel.add(burstsBox);
 
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         buttonsPanel.add(addRowButton);
         buttonsPanel.add(randomButton);
 
         randomButton.addActionListener(e -> {
-            tableModel.setRowCount(0);
-            Random rand = new Random();
+            long seed;
+            String seedText = seedField.getText().trim();
+            if (seedText.isEmpty()) {
+                seed = new Random().nextLong();
+            } else {
+                try {
+                    seed = Long.parseLong(seedText);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Please enter an integer seed.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
             int n;
             String numText = numPIDsField.getText().trim();
             if (!numText.isEmpty()) {
@@ -98,22 +158,33 @@ public class SchedulerGUI extends JFrame {
                     return;
                 }
             } else {
-                n = 5 + rand.nextInt(5); // Default random number of PIDs
+                n = new SplittableRandom(seed).nextInt(5, 10); // Default random number of PIDs
             }
-            for (int i = 1; i <= n; i++) {
-                int arrival = rand.nextInt(5);
-                int burst = 1 + rand.nextInt(9);
-                tableModel.addRow(new Object[]{"P" + i, arrival, burst});
+            // Mean burst 5 at 90% load
+            ProcessTable generated = new WorkloadGenerator(seed)
+                    .setArrivals((WorkloadGenerator.Arrivals) arrivalsBox.getSelectedItem())
+                    .setBursts((WorkloadGenerator.Bursts) burstsBox.getSelectedItem())
+                    .setMeanBurst(5).setRate(0.18)
+                    .generate(n);
+            // One model update instead of an event per row
+            Object[][] rows = new Object[n][];
+            for (int i = 0; i < n; i++) {
+                rows[i] = new Object[]{generated.pid(i), generated.arrival(i), generated.burst(i), 0, 0};
             }
+            tableModel.setDataVector(rows, COLUMNS);
+            outputArea.setText("Generated " + n + " processes (" + arrivalsBox.getSelectedItem() + " arrivals, "
+                    + burstsBox.getSelectedItem() + " bursts) with seed " + seed + "\n");
         });
 
         algoPanel.setBackground(new Color(169, 169, 169));
         numPIDsPanel.setBackground(new Color(169, 169, 169));
+        distributionPanel.setBackground(new Color(169, 169, 169));
         quantumPanel.setBackground(new Color(169, 169, 169));
-        mlfqQ0Panel.setBackground(new Color(169, 169, 169));
-        mlfqQ1Panel.setBackground(new Color(169, 169, 169));
-        mlfqQ2Panel.setBackground(new Color(169, 169, 169));
-        mlfqQ3Panel.setBackground(new Color(169, 169, 169));
+        mlfqQuantaPanel.setBackground(new Color(169, 169, 169));
+        mlfqBoostPanel.setBackground(new Color(169, 169, 169));
+        cfsPanel.setBackground(new Color(169, 169, 169));
+        agingPanel.setBackground(new Color(169, 169, 169));
+        cpuPanel.setBackground(new Color(169, 169, 169));
 
         JPanel runPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         Dimension combinedSize = new Dimension(
@@ -123,6 +194,21 @@ public class SchedulerGUI extends JFrame {
         runButton.setPreferredSize(combinedSize);
         runPanel.add(runButton);
         
+        JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        cancelButton = new RoundedButton("Cancel", 20);
+        styleButton(cancelButton);
+        cancelButton.setEnabled(false);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Idle");
+        progressBar.setPreferredSize(new Dimension(
+                combinedSize.width - cancelButton.getPreferredSize().width - 10, cancelButton.getPreferredSize().height));
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelButton);
+        cancelButton.addActionListener(e -> {
+            if (worker != null) worker.cancel(true);
+        });
+
         JPanel clearPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         RoundedButton clearButton = new RoundedButton("Clear", 20);
         styleButton(clearButton);
@@ -130,16 +216,22 @@ public class SchedulerGUI extends JFrame {
         clearPanel.add(clearButton);
 
         clearButton.addActionListener(e -> {
+            if (worker != null) worker.cancel(true);
             tableModel.setRowCount(0);                 
             outputArea.setText("");                    
-            ganttChartPanel.setBlocks(new ArrayList<>()); 
+            ganttChartPanel.clear(); 
             timeQuantumField.setText("");              
             numPIDsField.setText("");                  
             algorithmBox.setSelectedIndex(0);
-            mlfqQ0Field.setText("");
-            mlfqQ1Field.setText("");
-            mlfqQ2Field.setText("");
-            mlfqQ3Field.setText("");
+            compareBox.setSelected(false);
+            mlfqQuantaField.setText("");
+            mlfqBoostField.setText("");
+            cfsLatencyField.setText("");
+            cfsGranularityField.setText("");
+            agingField.setText("");
+            cpusField.setText("1");
+            balancingBox.setSelectedIndex(0);
+            switchCostField.setText("0");
         });
 
         // Set layout for the main controls panel
@@ -157,28 +249,34 @@ public class SchedulerGUI extends JFrame {
 
         // Set layout for all input rows (label + field)
         setRowLayout.accept(quantumPanel);
-        setRowLayout.accept(mlfqQ0Panel);
-        setRowLayout.accept(mlfqQ1Panel);
-        setRowLayout.accept(mlfqQ2Panel);
-        setRowLayout.accept(mlfqQ3Panel);
+        setRowLayout.accept(mlfqQuantaPanel);
+        setRowLayout.accept(mlfqBoostPanel);
+        setRowLayout.accept(cfsPanel);
+        setRowLayout.accept(agingPanel);
+        setRowLayout.accept(cpuPanel);
         setRowLayout.accept(algoPanel);
         setRowLayout.accept(numPIDsPanel);
+        setRowLayout.accept(distributionPanel);
 
         // Button panels: also keep buttons side-by-side
         buttonsPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
         runPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        progressPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
         clearPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
 
         // Add sub-panels to controlsPanel row by row
         gbc.gridy = row++; controlsPanel.add(algoPanel, gbc);
         gbc.gridy = row++; controlsPanel.add(numPIDsPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(distributionPanel, gbc);
         gbc.gridy = row++; controlsPanel.add(quantumPanel, gbc);
-        gbc.gridy = row++; controlsPanel.add(mlfqQ0Panel, gbc);
-        gbc.gridy = row++; controlsPanel.add(mlfqQ1Panel, gbc);
-        gbc.gridy = row++; controlsPanel.add(mlfqQ2Panel, gbc);
-        gbc.gridy = row++; controlsPanel.add(mlfqQ3Panel, gbc);
+        gbc.gridy = row++; controlsPanel.add(mlfqQuantaPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(mlfqBoostPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(cfsPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(agingPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(cpuPanel, gbc);
         gbc.gridy = row++; controlsPanel.add(buttonsPanel, gbc);
         gbc.gridy = row++; controlsPanel.add(runPanel, gbc);
+        gbc.gridy = row++; controlsPanel.add(progressPanel, gbc);
         gbc.gridy = row++; controlsPanel.add(clearPanel, gbc);
 
         // Optional: add vertical space filler at the bottom
@@ -191,7 +289,7 @@ public class SchedulerGUI extends JFrame {
 
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setPreferredSize(new Dimension(1100, controlsPanel.getPreferredSize().height));
-        tableModel = new DefaultTableModel(new String[]{"PID", "Arrival Time", "Burst Time"}, 0);
+        tableModel = new DefaultTableModel(COLUMNS, 0);
         table = new JTable(tableModel);
 
         table.setFillsViewportHeight(true);
@@ -226,7 +324,8 @@ public class SchedulerGUI extends JFrame {
         JScrollPane outputScroll = new JScrollPane(outputArea);
         
         ganttChartPanel = new GanttChartPanel();
-        ganttChartPanel.setPreferredSize(new Dimension(800, 120));
+        JScrollPane ganttScroll = new JScrollPane(ganttChartPanel);
+        ganttScroll.setPreferredSize(new Dimension(800, 140));
         
         // UI IS DONEEEE (So far)
 
@@ -243,9 +342,11 @@ public class SchedulerGUI extends JFrame {
         controlsPanel.setBackground(new Color(169, 169, 169));
         buttonsPanel.setBackground(new Color(169, 169, 169));
         runPanel.setBackground(new Color(169, 169, 169));
+        progressPanel.setBackground(new Color(169, 169, 169));
         clearPanel.setBackground(new Color(169, 169, 169));
         runButton.setBackground(new Color(0x4CAF50)); // Green color
         clearButton.setBackground(new Color(0xF44336)); // Red color
+        cancelButton.setBackground(new Color(0xFF9800)); // Orange color
         tablePanel.setBackground(Color.WHITE);
         outputArea.setBackground(Color.WHITE);
         outputArea.setBorder(BorderFactory.createEmptyBorder(10, 20, 20, 20));
@@ -254,22 +355,11 @@ public class SchedulerGUI extends JFrame {
         mainPanel.add(Box.createVerticalStrut(20));
         mainPanel.add(outputScroll);      
         mainPanel.add(Box.createVerticalStrut(20));
-        mainPanel.add(ganttChartPanel); 
+        mainPanel.add(ganttScroll); 
         
         addRowButton.addActionListener(e -> {
             int pid = tableModel.getRowCount() + 1;
-            tableModel.addRow(new Object[]{"P" + pid, 0, 0});
-        });
-
-        randomButton.addActionListener(e -> {
-            tableModel.setRowCount(0);
-            Random rand = new Random();
-            int n = 5 + rand.nextInt(5);
-            for (int i = 1; i <= n; i++) {
-                int arrival = rand.nextInt(5);
-                int burst = 1 + rand.nextInt(9);
-                tableModel.addRow(new Object[]{"P" + i, arrival, burst});
-            }
+            tableModel.addRow(new Object[]{"P" + pid, 0, 0, 0, 0});
         });
 
         runButton.addActionListener(e -> runSimulation());
@@ -349,135 +439,284 @@ public class RoundedButton extends JButton {
             for (int i = 0; i < tableModel.getRowCount(); i++) {
                 String pid = tableModel.getValueAt(i, 0).toString();
                 int arrival = Integer.parseInt(tableModel.getValueAt(i, 1).toString());
-                int burst = Integer.parseInt(tableModel.getValueAt(i, 2).toString());
-                processes.add(new Scheduler.Process(pid, arrival, burst));
+                // "5" is one CPU burst, "5,3,4" alternates CPU and I/O bursts
+                String[] parts = tableModel.getValueAt(i, 2).toString().split("[,;]");
+                int[] bursts = new int[parts.length];
+                for (int b = 0; b < parts.length; b++) bursts[b] = Integer.parseInt(parts[b].trim());
+                if (bursts.length % 2 == 0) {
+                    throw new IllegalArgumentException("Bursts of " + pid + " must alternate CPU and I/O and end with CPU, e.g. 5,3,4.");
+                }
+                Scheduler.Process process = new Scheduler.Process(pid, arrival, bursts);
+                Object nice = tableModel.getValueAt(i, 3);
+                if (nice != null && !nice.toString().trim().isEmpty()) {
+                    process.nice = Integer.parseInt(nice.toString().trim());
+                    if (process.nice < ProcessTable.MIN_NICE || process.nice > ProcessTable.MAX_NICE) {
+                        throw new IllegalArgumentException("Nice of " + pid + " must be between "
+                                + ProcessTable.MIN_NICE + " and " + ProcessTable.MAX_NICE + ".");
+                    }
+                }
+                Object priority = tableModel.getValueAt(i, 4);
+                if (priority != null && !priority.toString().trim().isEmpty()) {
+                    process.priority = Integer.parseInt(priority.toString().trim());
+                    if (process.priority < 0) throw new IllegalArgumentException("Priority of " + pid + " must be >= 0.");
+                }
+                processes.add(process);
             }
 
             String algo = algorithmBox.getSelectedItem().toString();
-            int quantum = 1;
-
-            if (algo.equals("Round Robin")) {
-                String qt = timeQuantumField.getText().trim();
-                if (qt.isEmpty()) throw new Exception("Quantum is required.");
-                quantum = Integer.parseInt(qt);
-                if (quantum <= 0) throw new Exception("Quantum must be > 0");
+            boolean compare = compareBox.isSelected();
+
+            // Lists or ranges in the quantum fields ("1:10", "2,4,8") run a parameter sweep
+            int[][] sweep = compare ? null : sweepCandidates(algo);
+            PolicyParams params = new PolicyParams().setQuantum(parseField(timeQuantumField));
+            String boostText = mlfqBoostField.getText().trim();
+            if (!boostText.isEmpty()) {
+                Integer boost = parseField(mlfqBoostField);
+                if (boost == null || boost < 0) throw new IllegalArgumentException("Please enter a non-negative integer boost interval.");
+                params.setMlfqBoost(boost);
             }
-
-            Scheduler scheduler = new Scheduler(processes);
-            String result = "";
-            
-            List<GanttChartPanel.GanttBlock> blocks = new ArrayList<>();
-            Color[] colors = {Color.RED, Color.BLUE, Color.GREEN, Color.ORANGE, Color.MAGENTA, Color.CYAN};
-
-            switch (algo) {
-                case "FIFO":
-                    result = scheduler.runFIFO();
-                    break;
-                case "Round Robin":
-                    result = scheduler.runRR(quantum);
-                    break;
-                case "SJF":
-                    result = scheduler.runSJF();
-                    break;
-                case "SRTF":
-                    result = scheduler.runSRTF();
-                    break;
-                case "MLFQ":
-                    try {
-                        int[] quanta = new int[4];
-                        quanta[0] = Integer.parseInt(mlfqQ0Field.getText().trim());
-                        quanta[1] = Integer.parseInt(mlfqQ1Field.getText().trim());
-                        quanta[2] = Integer.parseInt(mlfqQ2Field.getText().trim());
-                        quanta[3] = Integer.parseInt(mlfqQ3Field.getText().trim());
-
-                        result = scheduler.runMLFQ(quanta);
-                    } catch (NumberFormatException ex) {
-                        throw new Exception("Please enter valid integer values for all MLFQ quanta and boost interval.");
-                    }
-                    break;  
-                default:
-                    result = "Algorithm \"" + algo + "\" not implemented yet.";
-                    blocks = new ArrayList<>();
-                    break;
+            if (!agingField.getText().trim().isEmpty()) {
+                Integer aging = parseField(agingField);
+                if (aging == null || aging < 0) throw new IllegalArgumentException("Please enter a non-negative integer aging interval.");
+                params.setAgingInterval(aging);
             }
-
-            outputArea.setText(result);
-            ganttChartPanel.setBlocks(blocks);
-
-            outputArea.setText(result);
-            int currentTime = 0;
-            int colorIndex = 0;
-
-            for (Scheduler.Process p : processes) {
-                int start = currentTime;
-                int end = currentTime + p.burstTime;
-                blocks.add(new GanttChartPanel.GanttBlock(p.pid, start, end, colors[colorIndex % colors.length]));
-                currentTime = end;
-                colorIndex++;
+            if (!cfsLatencyField.getText().trim().isEmpty()) {
+                Integer latency = parseField(cfsLatencyField);
+                if (latency == null) throw new IllegalArgumentException("Please enter an integer CFS latency.");
+                params.setCfsLatency(latency);
+            }
+            if (!cfsGranularityField.getText().trim().isEmpty()) {
+                Integer granularity = parseField(cfsGranularityField);
+                if (granularity == null) throw new IllegalArgumentException("Please enter an integer CFS minimum granularity.");
+                params.setCfsMinGranularity(granularity);
+            }
+            if (sweep == null) {
+                int[][] levels = mlfqLevels();
+                if (levels != null) {
+                    int[] quanta = new int[levels.length];
+                    for (int i = 0; i < levels.length; i++) quanta[i] = levels[i][0];
+                    params.setMlfqQuanta(quanta);
+                }
+                // Report bad parameters before starting; a comparison skips what cannot run
+                if (!compare) PolicyRegistry.create(algo, params);
             }
 
-            ganttChartPanel.setBlocks(blocks);
-         
-        
-
+            Integer cpus = parseField(cpusField);
+            if (cpus == null || cpus <= 0) throw new IllegalArgumentException("Please enter a positive number of CPUs.");
+            MultiCoreEngine.Balancing balancing = (MultiCoreEngine.Balancing) balancingBox.getSelectedItem();
+            Integer switchCost = parseField(switchCostField);
+            if (switchCost == null || switchCost < 0) throw new IllegalArgumentException("Please enter a non-negative switch cost.");
+            if (cpus > 1 && switchCost > 0) throw new IllegalArgumentException("Switch costs are only simulated on one CPU.");
+            if (cpus > 1 && compare) throw new IllegalArgumentException("Compare all runs on one CPU.");
+
+            worker = new SimulationWorker(compare ? null : algo, processes, params, sweep, cpus, balancing, switchCost);
+            runButton.setEnabled(false);
+            cancelButton.setEnabled(true);
+            progressBar.setValue(0);
+            progressBar.setString("Running...");
+            worker.execute();
 
     } catch (Exception ex) {
         JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
     }
 }
-     
-    
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new SchedulerGUI().setVisible(true));
-    }
-}
+    /**
+     * Runs one simulation (a sweep, or with no algorithm a comparison of all
+     * of them) off the Event Dispatch Thread. The
+     * engine polls isCancelled(), inherited from SwingWorker, so Cancel stops
+     * it cooperatively; progress arrives through publish/process and the
+     * results are only pushed to the UI in done().
+     */
+    private class SimulationWorker extends SwingWorker<Void, int[]> implements SimulationMonitor {
+        private final String algo;
+        private final List<Scheduler.Process> processes;
+        private final PolicyParams params;
+        private final int[][] sweep;
+        private final int cpus;
+        private final MultiCoreEngine.Balancing balancing;
+        private final int switchCost;
+        private String text;
+        private SimulationResult result;
+        private MultiCoreResult multiCoreResult;
+        private List<PolicyComparison.Entry> comparison;
+        private boolean cached;
+
+        // The sweep and the comparison (algo null) always run on one CPU
+        SimulationWorker(String algo, List<Scheduler.Process> processes, PolicyParams params, int[][] sweep,
+                         int cpus, MultiCoreEngine.Balancing balancing, int switchCost) {
+            this.algo = algo;
+            this.processes = processes;
+            this.params = params;
+            this.sweep = sweep;
+            this.cpus = cpus;
+            this.balancing = balancing;
+            this.switchCost = switchCost;
+        }
 
-class GanttChartPanel extends JPanel {
-    private List<GanttBlock> blocks = new ArrayList<>();
+        @Override
+        protected Void doInBackground() {
+            ProcessTable table = new ProcessTable(processes.size());
+            for (Scheduler.Process p : processes) table.add(p);
+            if (sweep != null) {
+                ParameterSweep parameterSweep = new ParameterSweep(table).setMonitor(this).setSwitchCost(switchCost);
+                text = ParameterSweep.format(algo, algo.equals("Round Robin")
+                        ? parameterSweep.roundRobin(sweep[0])
+                        : parameterSweep.mlfq(sweep, params.mlfqBoost()));
+                return null;
+            }
+            if (algo == null) {
+                compare(table);
+                return null;
+            }
+
+            ResultCache.Key key = new ResultCache.Key(table,
+                    algo + " " + params + " cpus=" + cpus + (cpus > 1 ? " " + balancing.name() : "")
+                            + " switch=" + switchCost);
+            Object hit = resultCache.get(key);
+            cached = hit != null;
+            if (cpus > 1) {
+                if (cached) {
+                    multiCoreResult = (MultiCoreResult) hit;
+                } else {
+                    MultiCoreEngine engine = new MultiCoreEngine(cpus, balancing, this);
+                    multiCoreResult = engine.run(table, () -> PolicyRegistry.create(algo, params));
+                }
+                text = multiCoreResult.getReport();
+                resultCache.put(key, multiCoreResult, multiCoreResult.memoryFootprint());
+                return null;
+            }
+
+            if (cached) {
+                result = (SimulationResult) hit;
+            } else {
+                result = new Scheduler(table).setSwitchCost(switchCost).run(PolicyRegistry.create(algo, params), this);
+            }
+            text = result.getReport();
+            resultCache.put(key, result, result.memoryFootprint());
+            return null;
+        }
 
-    public void setBlocks(List<GanttBlock> blocks) {
-        this.blocks = blocks;
-        repaint();
+        // Results of a comparison are cached as a whole, keyed by the algorithms it ran
+        @SuppressWarnings("unchecked")
+        private void compare(ProcessTable table) {
+            List<String> names = PolicyRegistry.names();
+            ResultCache.Key key = new ResultCache.Key(table, "compare " + names + " " + params + " switch=" + switchCost);
+            Object hit = resultCache.get(key);
+            cached = hit != null;
+            if (cached) {
+                comparison = (List<PolicyComparison.Entry>) hit;
+                text = PolicyComparison.format(comparison, 0);
+                return;
+            }
+            PolicyComparison run = new PolicyComparison(table, params)
+                    .setMonitor(this).setSwitchCost(switchCost).setKeepTimelines(true);
+            comparison = run.run(names);
+            text = PolicyComparison.format(comparison, run.elapsedNanos());
+            long bytes = 0;
+            for (PolicyComparison.Entry e : comparison) {
+                if (e.result != null) bytes += e.result.memoryFootprint();
+            }
+            resultCache.put(key, comparison, bytes);
+        }
+
+        @Override
+        public void progress(int now, int completed, int total) {
+            publish(new int[]{now, completed, total});
+        }
+
+        @Override
+        protected void process(List<int[]> chunks) {
+            int[] last = chunks.get(chunks.size() - 1);
+            progressBar.setValue(last[2] == 0 ? 100 : (int) (100L * last[1] / last[2]));
+            progressBar.setString("t=" + last[0] + ", " + last[1] + "/" + last[2] + " done");
+        }
+
+        @Override
+        protected void done() {
+            runButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            if (isCancelled()) {
+                progressBar.setString("Cancelled");
+                return;
+            }
+            try {
+                get();
+            } catch (InterruptedException | java.util.concurrent.ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                progressBar.setString("Failed");
+                JOptionPane.showMessageDialog(SchedulerGUI.this, "Error: " + cause.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            progressBar.setValue(100);
+            progressBar.setString(cached ? "Done (cached)" : "Done");
+            outputArea.setText(text);
+            if (comparison != null) {
+                List<String> labels = new ArrayList<>();
+                List<SimulationResult> results = new ArrayList<>();
+                for (PolicyComparison.Entry e : comparison) {
+                    labels.add(e.name);
+                    results.add(e.result);
+                }
+                ganttChartPanel.setTimelines(labels, results);
+            } else if (multiCoreResult != null) {
+                ganttChartPanel.setTimelines(multiCoreResult);
+            } else {
+                ganttChartPanel.setTimeline(result);
+            }
+        }
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        if (blocks == null || blocks.isEmpty()) return;
+    // Sweep candidates per parameter, or null when the fields hold single values
+    private int[][] sweepCandidates(String algo) {
+        int[][] candidates;
+        if (algo.equals("Round Robin")) {
+            String text = timeQuantumField.getText().trim();
+            if (text.isEmpty()) return null; // let the single run report what is missing
+            candidates = new int[][]{ParameterSweep.parseValues(text)};
+        } else if (algo.equals("MLFQ")) {
+            candidates = mlfqLevels();
+            if (candidates == null) return null;
+        } else {
+            return null;
+        }
 
-        Graphics2D g2 = (Graphics2D) g;
-        int height = 50;
-        int xStart = 50;
-        int y = 40;
-        int unitWidth = 30;
-
-        for (GanttBlock block : blocks) {
-            int width = (block.end - block.start) * unitWidth;
-            g2.setColor(block.color);
-            g2.fillRect(xStart, y, width, height);
-
-            g2.setColor(Color.BLACK);
-            g2.drawRect(xStart, y, width, height);
-            g2.drawString(block.pid, xStart + width / 2 - 10, y + 30);
-            g2.drawString(String.valueOf(block.start), xStart, y + 70);
-
-            xStart += width;
+        for (int[] values : candidates) {
+            if (values.length > 1) return candidates;
         }
-        // Draw the final time
-        g2.drawString(String.valueOf(blocks.get(blocks.size() - 1).end), xStart, y + 70);
+        return null;
     }
 
-    static class GanttBlock {
-        String pid;
-        int start, end;
-        Color color;
+    /*
+     * Candidate quanta per MLFQ level. "2,4,8" is three levels with one
+     * quantum each; with '/' between levels each level takes a list or range,
+     * e.g. "1:4/2,4,8/16" sweeps 4 x 3 x 1 configurations. Null when empty.
+     */
+    private int[][] mlfqLevels() {
+        String text = mlfqQuantaField.getText().trim();
+        if (text.isEmpty()) return null;
+        String[] levels = text.contains("/") ? text.split("/") : text.split(",");
+        int[][] candidates = new int[levels.length][];
+        try {
+            for (int i = 0; i < levels.length; i++) candidates[i] = ParameterSweep.parseValues(levels[i]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Please enter valid integer values for all MLFQ quanta.");
+        }
+        return candidates;
+    }
 
-        public GanttBlock(String pid, int start, int end, Color color) {
-            this.pid = pid;
-            this.start = start;
-            this.end = end;
-            this.color = color;
+    // Empty or non-numeric fields count as "not set"
+    private static Integer parseField(JTextField field) {
+        try {
+            return Integer.parseInt(field.getText().trim());
+        } catch (NumberFormatException ex) {
+            return null;
         }
     }
-} 
\ No newline at end of file
+     
+    
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new SchedulerGUI().setVisible(true));
+    }
+}
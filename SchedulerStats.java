@@ -0,0 +1,281 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import jdk.jfr.*;
+
+/**
+ * Instrumentation of the engines' hot paths, exposed through JMX and JDK
+ * Flight Recorder. Everything is gated by the scheduler.stats system
+ * property, read once into a constant: when it is off (the default) the JIT
+ * drops the guarded code and the engines run exactly as before.
+ *
+ * Engines count into a per-run {@link Probe} with plain fields and publish
+ * it into the shared totals only at their periodic progress checks and at
+ * the end of the run, so parallel runs do not contend per dispatch. MLFQ
+ * demotions are counted by each policy instance and added once per run.
+ *
+ * JFR events: "scheduler.Run" once per run, "scheduler.Stats" periodically
+ * (every second by default) with the totals, and "scheduler.Decision" per
+ * dispatch, which is disabled unless a recording setting enables it.
+ */
+public class SchedulerStats implements SchedulerStatsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("scheduler.stats");
+    public static final SchedulerStats INSTANCE = new SchedulerStats();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder dispatches = new LongAdder();
+    private final LongAdder contextSwitches = new LongAdder();
+    private final LongAdder idleTime = new LongAdder();
+    private final LongAdder depthSum = new LongAdder();
+    private final LongAdder decisionNanos = new LongAdder();
+    private final AtomicLongArray demotions = new AtomicLongArray(MlfqPolicy.MAX_LEVELS);
+    private volatile int depth;
+    private volatile int maxDepth;
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                        new ObjectName("OS_CPU_SCHEDULER:type=SchedulerStats"));
+            } catch (Exception e) {
+                System.err.println("SchedulerStats: JMX registration failed: " + e);
+            }
+            FlightRecorder.addPeriodicEvent(StatsEvent.class, SchedulerStats::emitStats);
+        }
+    }
+
+    private SchedulerStats() {
+    }
+
+    // Starts counting one run of the given policy instances; only call when ENABLED
+    public static Probe start(String algorithm, SchedulingPolicy... policies) {
+        INSTANCE.runs.increment();
+        return new Probe(algorithm, policies);
+    }
+
+    /**
+     * Counters of one run. Not thread-safe: a probe belongs to the thread
+     * running the simulation.
+     */
+    public static class Probe {
+        // Here rather than in SchedulerStats so that JFR is not touched while disabled
+        private static final EventType DECISION = EventType.getEventType(DecisionEvent.class);
+
+        private final String algorithm;
+        private final SchedulingPolicy[] policies;
+        private long dispatches, contextSwitches, idleTime, depthSum, decisionNanos;
+        private long publishedDispatches, publishedSwitches, publishedIdle, publishedDepth, publishedNanos;
+        private int lastDepth, maxDepth;
+
+        private Probe(String algorithm, SchedulingPolicy[] policies) {
+            this.algorithm = algorithm;
+            this.policies = policies;
+        }
+
+        /*
+         * Process p got the CPU; switched is the engine's own verdict, so the
+         * counts match its results. decisionNanos covers selectNext and timeSlice.
+         */
+        public void dispatch(int p, boolean switched, int readyDepth, long nanos) {
+            dispatches++;
+            if (switched) contextSwitches++;
+            depthSum += readyDepth;
+            lastDepth = readyDepth;
+            if (readyDepth > maxDepth) maxDepth = readyDepth;
+            decisionNanos += nanos;
+            if (DECISION.isEnabled()) {
+                DecisionEvent event = new DecisionEvent();
+                event.algorithm = algorithm;
+                event.process = p;
+                event.readyDepth = readyDepth;
+                event.decisionNanos = nanos;
+                event.commit();
+            }
+        }
+
+        public void idle(long time) {
+            idleTime += time;
+        }
+
+        // Adds what was counted since the previous publish to the shared totals
+        public void publish() {
+            SchedulerStats s = INSTANCE;
+            s.dispatches.add(dispatches - publishedDispatches);
+            s.contextSwitches.add(contextSwitches - publishedSwitches);
+            s.idleTime.add(idleTime - publishedIdle);
+            s.depthSum.add(depthSum - publishedDepth);
+            s.decisionNanos.add(decisionNanos - publishedNanos);
+            publishedDispatches = dispatches;
+            publishedSwitches = contextSwitches;
+            publishedIdle = idleTime;
+            publishedDepth = depthSum;
+            publishedNanos = decisionNanos;
+            s.depth = lastDepth;
+            if (maxDepth > s.maxDepth) s.maxDepth = maxDepth;
+        }
+
+        // Publishes, adds the run's MLFQ demotions and records the run's JFR event
+        public void finish(int processes, long makespan) {
+            publish();
+            for (SchedulingPolicy policy : policies) {
+                if (!(policy instanceof MlfqPolicy)) continue;
+                long[] demoted = ((MlfqPolicy) policy).demotions();
+                for (int l = 0; l < demoted.length; l++) {
+                    if (demoted[l] != 0) INSTANCE.demotions.addAndGet(l, demoted[l]);
+                }
+            }
+            RunEvent event = new RunEvent();
+            if (event.isEnabled()) {
+                event.algorithm = algorithm;
+                event.processes = processes;
+                event.makespan = makespan;
+                event.dispatches = dispatches;
+                event.contextSwitches = contextSwitches;
+                event.idleTime = idleTime;
+                event.maxReadyDepth = maxDepth;
+                event.decisionNanos = decisionNanos;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getDispatches() {
+        return dispatches.sum();
+    }
+
+    @Override
+    public long getContextSwitches() {
+        return contextSwitches.sum();
+    }
+
+    @Override
+    public long getIdleTime() {
+        return idleTime.sum();
+    }
+
+    @Override
+    public int getReadyQueueDepth() {
+        return depth;
+    }
+
+    @Override
+    public int getMaxReadyQueueDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public double getAverageReadyQueueDepth() {
+        long n = dispatches.sum();
+        return n == 0 ? 0 : (double) depthSum.sum() / n;
+    }
+
+    @Override
+    public long getDecisionNanos() {
+        return decisionNanos.sum();
+    }
+
+    @Override
+    public double getAverageDecisionNanos() {
+        long n = dispatches.sum();
+        return n == 0 ? 0 : (double) decisionNanos.sum() / n;
+    }
+
+    @Override
+    public long[] getMlfqDemotions() {
+        int levels = demotions.length();
+        while (levels > 0 && demotions.get(levels - 1) == 0) levels--;
+        long[] result = new long[levels];
+        for (int l = 0; l < levels; l++) result[l] = demotions.get(l);
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        runs.reset();
+        dispatches.reset();
+        contextSwitches.reset();
+        idleTime.reset();
+        depthSum.reset();
+        decisionNanos.reset();
+        for (int l = 0; l < demotions.length(); l++) demotions.set(l, 0);
+        depth = 0;
+        maxDepth = 0;
+    }
+
+    private static void emitStats() {
+        SchedulerStats s = INSTANCE;
+        StatsEvent event = new StatsEvent();
+        event.runs = s.getRuns();
+        event.dispatches = s.getDispatches();
+        event.contextSwitches = s.getContextSwitches();
+        event.idleTime = s.getIdleTime();
+        event.readyDepth = s.getReadyQueueDepth();
+        event.averageDecisionNanos = s.getAverageDecisionNanos();
+        event.commit();
+    }
+
+    @Name("scheduler.Run")
+    @Label("Simulation Run")
+    @Category("Scheduler")
+    static class RunEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("Processes")
+        int processes;
+        @Label("Makespan")
+        long makespan;
+        @Label("Dispatches")
+        long dispatches;
+        @Label("Context Switches")
+        long contextSwitches;
+        @Label("Idle Time")
+        long idleTime;
+        @Label("Max Ready Depth")
+        int maxReadyDepth;
+        @Label("Decision Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long decisionNanos;
+    }
+
+    @Name("scheduler.Decision")
+    @Label("Scheduling Decision")
+    @Category("Scheduler")
+    @Enabled(false)
+    static class DecisionEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("Process")
+        int process;
+        @Label("Ready Depth")
+        int readyDepth;
+        @Label("Decision Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long decisionNanos;
+    }
+
+    @Name("scheduler.Stats")
+    @Label("Scheduler Statistics")
+    @Category("Scheduler")
+    @Period("1 s")
+    static class StatsEvent extends Event {
+        @Label("Runs")
+        long runs;
+        @Label("Dispatches")
+        long dispatches;
+        @Label("Context Switches")
+        long contextSwitches;
+        @Label("Idle Time")
+        long idleTime;
+        @Label("Ready Depth")
+        int readyDepth;
+        @Label("Average Decision Time")
+        double averageDecisionNanos;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Management interface of {@link SchedulerStats}, registered as
+ * "OS_CPU_SCHEDULER:type=SchedulerStats" when the JVM runs with
+ * -Dscheduler.stats=true. Totals cover every run since the last reset, on
+ * every engine; running simulations publish every few thousand dispatches.
+ */
+public interface SchedulerStatsMXBean {
+    long getRuns();
+
+    long getDispatches();
+
+    // Dispatches of a different process than the one that ran last
+    long getContextSwitches();
+
+    long getIdleTime();
+
+    // Ready processes left after the latest dispatch of any run
+    int getReadyQueueDepth();
+
+    int getMaxReadyQueueDepth();
+
+    double getAverageReadyQueueDepth();
+
+    // Wall-clock time spent in selectNext and timeSlice
+    long getDecisionNanos();
+
+    double getAverageDecisionNanos();
+
+    // Index l: MLFQ processes demoted from level l to l + 1
+    long[] getMlfqDemotions();
+
+    void reset();
+}
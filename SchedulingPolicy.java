@@ -0,0 +1,49 @@
+/**
+ * A scheduling algorithm, driven by {@link SimulationEngine}. The engine owns
+ * the clock, arrivals and bookkeeping; the policy only keeps the ready set
+ * and decides which process runs next and for how long.
+ *
+ * Processes are int indices into the {@link ProcessTable} passed to reset().
+ * Policies hold per-run state, so use one instance per run.
+ */
+public interface SchedulingPolicy {
+    // Used for the report header, e.g. "=== FIFO Scheduling ==="
+    String getName();
+
+    // Called once before a run; drop any state left from a previous run
+    void reset(ProcessTable table);
+
+    // Process p became ready at time now
+    void onArrival(int p, int now);
+
+    boolean hasReady();
+
+    // Size of the ready set; the multi-core engine balances and steals by it
+    int readyCount();
+
+    // Removes and returns the process that gets the CPU next
+    int selectNext(int now);
+
+    // Longest the process may run before the policy is consulted again
+    int timeSlice(int p);
+
+    // Preemptive policies are consulted again at every arrival
+    default boolean isPreemptive() {
+        return false;
+    }
+
+    // The slice ended with work left; p goes back into the ready set
+    void onPreempt(int p, int now);
+
+    default void onComplete(int p, int now) {
+    }
+
+    // p finished a CPU burst and waits for I/O; it is not in the ready set until onWake
+    default void onBlock(int p, int now) {
+    }
+
+    // p's I/O completed and it is ready again; by default it queues like a new arrival
+    default void onWake(int p, int now) {
+        onArrival(p, now);
+    }
+}
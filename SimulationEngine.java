@@ -0,0 +1,165 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Shared discrete-event loop behind every {@link SchedulingPolicy}. Time only
+ * moves at events: a slice ending, a completion, or (for idle CPUs and
+ * preemptive policies) the next arrival or I/O completion.
+ *
+ * Processes with I/O bursts leave the ready set when a CPU burst ends
+ * (onBlock) and return through onWake when their I/O completes; pending I/O
+ * is kept in an {@link IoQueue}. With a context-switch cost, every dispatch
+ * of a different process than the one that ran last first spends that long
+ * switching, shown as TimelineSink.SWITCH slices on the timeline.
+ */
+public class SimulationEngine {
+    // Dispatches between two progress reports / cancellation checks
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final SimulationMonitor monitor;
+    private int switchCost;
+
+    public SimulationEngine() {
+        this(SimulationMonitor.NONE);
+    }
+
+    public SimulationEngine(SimulationMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // Time each context switch takes; 0 (the default) makes switches free
+    public SimulationEngine setSwitchCost(int switchCost) {
+        if (switchCost < 0) throw new IllegalArgumentException("Context switch cost must be >= 0");
+        this.switchCost = switchCost;
+        return this;
+    }
+
+    public int getSwitchCost() {
+        return switchCost;
+    }
+
+    // Keeps the timeline in memory, run-length encoded
+    public SimulationResult run(ProcessTable table, SchedulingPolicy policy) {
+        RleTimeline timeline = new RleTimeline();
+        return run(table, policy, timeline, timeline);
+    }
+
+    // Streams the timeline to the sink; the result carries no timeline
+    public SimulationResult run(ProcessTable table, SchedulingPolicy policy, TimelineSink sink) {
+        return run(table, policy, sink, null);
+    }
+
+    private SimulationResult run(ProcessTable workload, SchedulingPolicy policy, TimelineSink sink, RleTimeline timeline) {
+        // All mutable state lives in the run view and the policy, never in the workload
+        ProcessTable table = workload.forRun();
+        policy.reset(table);
+
+        int[] order = table.arrivalOrder();
+        int n = order.length;
+        int[] completionOrder = new int[n];
+
+        SchedulerStats.Probe probe = SchedulerStats.ENABLED ? SchedulerStats.start(policy.getName(), policy) : null;
+        IoQueue io = table.hasIo() ? new IoQueue() : null;
+        int now = 0, next = 0, completed = 0;
+        int last = -1;          // process that ran last, whose context is loaded
+        long switches = 0, switchTime = 0;
+        int untilCheck = CHECK_INTERVAL;
+        while (completed < n) {
+            if (--untilCheck == 0) {
+                untilCheck = CHECK_INTERVAL;
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                monitor.progress(now, completed, n);
+                if (SchedulerStats.ENABLED) probe.publish();
+            }
+            while (next < n && table.arrival[order[next]] <= now) {
+                policy.onArrival(order[next++], now);
+            }
+            if (io != null) wake(io, policy, now);
+
+            if (!policy.hasReady()) {
+                int nextEvent = (int) nextEvent(table, order, next, io);
+                sink.slice(TimelineSink.IDLE, now, nextEvent);
+                if (SchedulerStats.ENABLED) probe.idle(nextEvent - now);
+                now = nextEvent;
+                continue;
+            }
+
+            long decisionStart = SchedulerStats.ENABLED ? System.nanoTime() : 0;
+            int p = policy.selectNext(now);
+            int slice = Math.min(policy.timeSlice(p), table.remaining[p]);
+            if (SchedulerStats.ENABLED) probe.dispatch(p, p != last, policy.readyCount(), System.nanoTime() - decisionStart);
+
+            if (p != last) {
+                switches++;
+                if (switchCost > 0) {
+                    sink.slice(TimelineSink.SWITCH, now, now + switchCost);
+                    now += switchCost;
+                    switchTime += switchCost;
+                    // Whatever arrives meanwhile waits for the next decision
+                    while (next < n && table.arrival[order[next]] <= now) {
+                        policy.onArrival(order[next++], now);
+                    }
+                    if (io != null) wake(io, policy, now);
+                }
+                last = p;
+            }
+            if (table.start[p] < 0) table.start[p] = now;
+
+            int run = slice;
+            if (policy.isPreemptive()) {
+                run = (int) Math.min(run, nextEvent(table, order, next, io) - now);
+            }
+            table.remaining[p] -= run;
+
+            sink.slice(p, now, now + run);
+            now += run;
+
+            while (next < n && table.arrival[order[next]] <= now) {
+                policy.onArrival(order[next++], now);
+            }
+            if (io != null) wake(io, policy, now);
+
+            if (table.remaining[p] > 0) {
+                policy.onPreempt(p, now);
+                continue;
+            }
+            int ioTime = io == null ? -1 : table.nextIo(p);
+            if (ioTime >= 0) {
+                policy.onBlock(p, now);
+                io.add(now + ioTime, p);
+            } else {
+                table.completion[p] = now;
+                completionOrder[completed++] = p;
+                policy.onComplete(p, now);
+            }
+        }
+
+        sink.finish();
+        monitor.progress(now, completed, n);
+        if (SchedulerStats.ENABLED) probe.finish(n, now);
+
+        int[] waiting = new int[n];
+        int[] turnaround = new int[n];
+        int[] response = new int[n];
+        for (int p = 0; p < n; p++) {
+            turnaround[p] = table.completion[p] - table.arrival[p];
+            waiting[p] = turnaround[p] - table.burst[p] - table.ioTime(p);
+            response[p] = table.start[p] - table.arrival[p];
+        }
+        return new SimulationResult(policy.getName(), table, waiting, turnaround, response,
+                completionOrder, timeline, now, switches, switchTime);
+    }
+
+    // Hands every process whose I/O is done by now back to the policy
+    private static void wake(IoQueue io, SchedulingPolicy policy, int now) {
+        while (!io.isEmpty() && io.peekTime() <= now) {
+            policy.onWake(io.poll(), now);
+        }
+    }
+
+    // Next arrival or I/O completion, Long.MAX_VALUE when there is none
+    private static long nextEvent(ProcessTable table, int[] order, int next, IoQueue io) {
+        long event = next < order.length ? table.arrival[order[next]] : Long.MAX_VALUE;
+        if (io != null && !io.isEmpty()) event = Math.min(event, io.peekTime());
+        return event;
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Lets a caller watch a running simulation and stop it. The engine calls
+ * both methods from the simulating thread, every few thousand dispatches.
+ */
+public interface SimulationMonitor {
+    SimulationMonitor NONE = new SimulationMonitor() {
+        @Override
+        public void progress(int now, int completed, int total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    // Simulated time reached and processes finished so far
+    void progress(int now, int completed, int total);
+
+    // Checked cooperatively; the engine then throws CancellationException
+    boolean isCancelled();
+}
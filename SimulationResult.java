@@ -0,0 +1,217 @@
+import java.io.*;
+
+/**
+ * Outcome of one simulation run. Per-process metrics are kept in primitive
+ * arrays indexed like the {@link ProcessTable}; the text report is only
+ * rendered when someone asks for it. Waiting, turnaround and response times
+ * are also summarized in {@link LogHistogram}s for the tail percentiles.
+ */
+public class SimulationResult {
+    private final String algorithm;
+    private final ProcessTable table;
+    private final int[] waiting;
+    private final int[] turnaround;
+    private final int[] response;
+    private final int[] completionOrder;
+    private final RleTimeline timeline;
+    private final int makespan;
+    private final long switches;
+    private final long switchTime;
+    private final LogHistogram waitingHistogram;
+    private final LogHistogram turnaroundHistogram;
+    private final LogHistogram responseHistogram;
+    private String report;
+
+    SimulationResult(String algorithm, ProcessTable table, int[] waiting, int[] turnaround, int[] response,
+                     int[] completionOrder, RleTimeline timeline, int makespan, long switches, long switchTime) {
+        this.algorithm = algorithm;
+        this.table = table;
+        this.waiting = waiting;
+        this.turnaround = turnaround;
+        this.response = response;
+        this.completionOrder = completionOrder;
+        this.timeline = timeline;
+        this.makespan = makespan;
+        this.switches = switches;
+        this.switchTime = switchTime;
+        this.waitingHistogram = histogram(waiting);
+        this.turnaroundHistogram = histogram(turnaround);
+        this.responseHistogram = histogram(response);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int size() {
+        return waiting.length;
+    }
+
+    public String pid(int p) {
+        if (p == TimelineSink.IDLE) return Scheduler.IDLE_PID;
+        return p == TimelineSink.SWITCH ? Scheduler.SWITCH_PID : table.pid(p);
+    }
+
+    public int waitingTime(int p) {
+        return waiting[p];
+    }
+
+    public int turnaroundTime(int p) {
+        return turnaround[p];
+    }
+
+    public int responseTime(int p) {
+        return response[p];
+    }
+
+    // Process indices in the order they finished
+    public int[] completionOrder() {
+        return completionOrder.clone();
+    }
+
+    // Null when the run streamed its timeline to another sink
+    public RleTimeline getTimeline() {
+        return timeline;
+    }
+
+    public int getMakespan() {
+        return makespan;
+    }
+
+    // Dispatches of a different process than the one that ran last
+    public long contextSwitches() {
+        return switches;
+    }
+
+    // CPU time spent switching rather than running processes
+    public long switchTime() {
+        return switchTime;
+    }
+
+    // Completed processes per time unit of makespan
+    public double throughput() {
+        return makespan == 0 ? 0 : (double) size() / makespan;
+    }
+
+    public double averageWaitingTime() {
+        return average(waiting);
+    }
+
+    public double averageTurnaroundTime() {
+        return average(turnaround);
+    }
+
+    public double averageResponseTime() {
+        return average(response);
+    }
+
+    // Not copies; add() them into a new LogHistogram to merge several runs
+    public LogHistogram waitingHistogram() {
+        return waitingHistogram;
+    }
+
+    public LogHistogram turnaroundHistogram() {
+        return turnaroundHistogram;
+    }
+
+    // Time from arrival to first dispatch
+    public LogHistogram responseHistogram() {
+        return responseHistogram;
+    }
+
+    // Rough heap bytes held by this result, including its timeline and report if present
+    long memoryFootprint() {
+        long bytes = 4L * (waiting.length + turnaround.length + response.length + completionOrder.length)
+                + 3 * LogHistogram.FOOTPRINT + table.memoryFootprint();
+        if (timeline != null) bytes += timeline.memoryFootprint();
+        if (report != null) bytes += report.length();
+        return bytes;
+    }
+
+    public String getReport() {
+        if (report == null) {
+            report = render();
+        }
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    // Streams the same text as getReport(), for results too large to hold as one String
+    public void writeReport(Appendable out) throws IOException {
+        out.append("=== ").append(algorithm).append(" Scheduling ===\n");
+        out.append(String.format("%-5s %-10s %-10s %-15s %-15s %-15s\n",
+                "PID", "Arrival", "Burst", "Waiting", "Turnaround", "Response"));
+        StringBuilder row = new StringBuilder(64);
+        for (int p : completionOrder) {
+            // Same layout as "%-5s %-10d %-10d %-15d %-15d %-15d", without a Formatter per row
+            row.setLength(0);
+            pad(row, table.pid(p), 5).append(' ');
+            pad(row, String.valueOf(table.arrival(p)), 10).append(' ');
+            pad(row, String.valueOf(table.burst(p)), 10).append(' ');
+            pad(row, String.valueOf(waiting[p]), 15).append(' ');
+            pad(row, String.valueOf(turnaround[p]), 15).append(' ');
+            pad(row, String.valueOf(response[p]), 15).append('\n');
+            out.append(row);
+        }
+        writeAverages(out);
+    }
+
+    // Header and averages only, without the per-process rows
+    public void writeSummary(Appendable out) throws IOException {
+        out.append("=== ").append(algorithm).append(" Scheduling ===\n");
+        out.append("Processes: ").append(String.valueOf(size())).append('\n');
+        out.append("Makespan: ").append(String.valueOf(makespan)).append('\n');
+        writeAverages(out);
+    }
+
+    private void writeAverages(Appendable out) throws IOException {
+        out.append(String.format("\nAverage Waiting Time: %.2f\n", averageWaitingTime()));
+        out.append(String.format("Average Turnaround Time: %.2f\n", averageTurnaroundTime()));
+        out.append(String.format("Average Response Time: %.2f\n", averageResponseTime()));
+        out.append(String.format("Throughput: %.4f processes per time unit\n", throughput()));
+        out.append(String.format("Context Switches: %d (%d time units switching, %.1f %% of makespan)\n",
+                switches, switchTime, makespan == 0 ? 0.0 : 100.0 * switchTime / makespan));
+        out.append(String.format("\n%-12s %-10s %-10s %-10s %-10s %-10s\n", "Percentile", "p50", "p90", "p99", "p99.9", "Max"));
+        writePercentiles(out, "Waiting", waitingHistogram);
+        writePercentiles(out, "Turnaround", turnaroundHistogram);
+        writePercentiles(out, "Response", responseHistogram);
+    }
+
+    private static void writePercentiles(Appendable out, String name, LogHistogram h) throws IOException {
+        out.append(String.format("%-12s %-10d %-10d %-10d %-10d %-10d\n", name,
+                h.percentile(50), h.percentile(90), h.percentile(99), h.percentile(99.9), h.max()));
+    }
+
+    private String render() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeReport(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
+
+    // Appends value left-aligned in a field of the given width
+    private static StringBuilder pad(StringBuilder row, String value, int width) {
+        row.append(value);
+        for (int i = value.length(); i < width; i++) row.append(' ');
+        return row;
+    }
+
+    private static LogHistogram histogram(int[] values) {
+        LogHistogram h = new LogHistogram();
+        for (int v : values) h.record(v);
+        return h;
+    }
+
+    private static double average(int[] values) {
+        double total = 0;
+        for (int v : values) total += v;
+        return total / values.length;
+    }
+}
@@ -0,0 +1,54 @@
+public class SjfPolicy implements SchedulingPolicy {
+    private IndexedHeap ready;
+    private ProcessTable table;
+
+    @Override
+    public String getName() {
+        return "SJF (Non-Preemptive)";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        // Shortest next CPU burst first (the whole burst, unless the process has I/O);
+        // ties go to the earlier arrival, then the PID in string order (so "P11" before "P2")
+        ready = new IndexedHeap(4, (a, b) -> {
+            int cmp = table.comparePids(a, b);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        ready.add(p, key(p));
+    }
+
+    private long key(int p) {
+        return (long) table.remaining[p] << 31 | table.arrival[p];
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return ready.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        return ready.poll();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        ready.add(p, key(p));
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.function.Consumer;
+
+/**
+ * Ring of fixed-width time buckets behind the {@link StreamingEngine}
+ * windows. Each bucket keeps counters and a latency histogram, so memory is
+ * buckets x one histogram however long the run is. Every time the clock
+ * crosses a bucket boundary, the last `buckets` buckets are merged and
+ * reported as one {@link WindowStats}.
+ */
+class SlidingWindow {
+    private final int width;
+    private final Consumer<WindowStats> listener;
+    private final long[] busy, queueArea, arrivals, completions, waitingSum;
+    private final LogHistogram[] latency;
+    private final LogHistogram merged = new LogHistogram();
+    private long time;
+    private long bucketEnd;
+    private int current;
+    private int filled = 1;  // buckets in use, up to latency.length
+
+    SlidingWindow(int width, int buckets, Consumer<WindowStats> listener) {
+        if (width <= 0 || buckets <= 0) throw new IllegalArgumentException("Window step and bucket count must be > 0");
+        this.width = width;
+        this.listener = listener;
+        busy = new long[buckets];
+        queueArea = new long[buckets];
+        arrivals = new long[buckets];
+        completions = new long[buckets];
+        waitingSum = new long[buckets];
+        latency = new LogHistogram[buckets];
+        for (int b = 0; b < buckets; b++) latency[b] = new LogHistogram();
+        bucketEnd = width;
+    }
+
+    // Moves the clock to `to`; the CPU state and ready count held since the last call
+    void advance(long to, boolean running, int ready) {
+        while (to >= bucketEnd) {
+            add(bucketEnd - time, running, ready);
+            time = bucketEnd;
+            report();
+            current = (current + 1) % latency.length;
+            filled = Math.min(filled + 1, latency.length);
+            busy[current] = queueArea[current] = arrivals[current] = completions[current] = waitingSum[current] = 0;
+            latency[current].reset();
+            bucketEnd += width;
+        }
+        add(to - time, running, ready);
+        time = to;
+    }
+
+    void arrival() {
+        arrivals[current]++;
+    }
+
+    void completion(int turnaround, int waiting) {
+        completions[current]++;
+        waitingSum[current] += waiting;
+        latency[current].record(turnaround);
+    }
+
+    private void add(long span, boolean running, int ready) {
+        if (running) busy[current] += span;
+        queueArea[current] += span * ready;
+    }
+
+    private void report() {
+        long a = 0, c = 0, b = 0, q = 0, w = 0;
+        merged.reset();
+        for (int i = 0; i < filled; i++) {
+            int bucket = (current - i + latency.length) % latency.length;
+            a += arrivals[bucket];
+            c += completions[bucket];
+            b += busy[bucket];
+            q += queueArea[bucket];
+            w += waitingSum[bucket];
+            merged.add(latency[bucket]);
+        }
+        listener.accept(new WindowStats(bucketEnd, (long) filled * width, a, c, b, q, w, merged));
+    }
+}
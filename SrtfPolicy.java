@@ -0,0 +1,56 @@
+public class SrtfPolicy implements SchedulingPolicy {
+    private final IndexedHeap ready = new IndexedHeap();
+    private ProcessTable table;
+
+    @Override
+    public String getName() {
+        return "SRTF (Preemptive SJF)";
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        ready.clear();
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        ready.add(p, key(p));
+    }
+
+    // Remaining time, then arrival; the heap breaks the rest by table position
+    private long key(int p) {
+        return (long) table.remaining[p] << 31 | table.arrival[p];
+    }
+
+    @Override
+    public boolean hasReady() {
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public int readyCount() {
+        return ready.size();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        return ready.poll();
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return true;
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        // Re-queued under its reduced remaining time
+        ready.add(p, key(p));
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Open-system counterpart of {@link SimulationEngine}: processes keep
+ * arriving from an {@link ArrivalStream} until a time horizon, and instead of
+ * per-process results the run emits {@link WindowStats} for a sliding window
+ * every `step` time units.
+ *
+ * Memory stays constant over time. Finished processes give their table slot
+ * back (see ProcessTable.allocate), so the table only holds processes in the
+ * system, and all metrics live in fixed-size buckets and histograms. An
+ * overloaded system (arrival rate above service rate) still grows its ready
+ * set without bound, as the real one would.
+ */
+public class StreamingEngine {
+    // Dispatches between two progress reports / cancellation checks
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final SchedulingPolicy policy;
+    private final int step;
+    private final int buckets;
+    private SimulationMonitor monitor = SimulationMonitor.NONE;
+
+    // Windows are step * buckets long and reported every step time units
+    public StreamingEngine(SchedulingPolicy policy, int step, int buckets) {
+        if (step <= 0 || buckets <= 0) throw new IllegalArgumentException("Window step and bucket count must be > 0");
+        this.policy = policy;
+        this.step = step;
+        this.buckets = buckets;
+    }
+
+    // progress() reports completed out of admitted processes
+    public StreamingEngine setMonitor(SimulationMonitor monitor) {
+        this.monitor = monitor;
+        return this;
+    }
+
+    public StreamingResult run(ArrivalStream arrivals, int horizon, Consumer<WindowStats> listener) {
+        if (horizon <= 0) throw new IllegalArgumentException("Horizon must be > 0");
+        ProcessTable table = new ProcessTable(1024);
+        policy.reset(table);
+        SlidingWindow window = new SlidingWindow(step, buckets, listener);
+        LogHistogram latency = new LogHistogram();
+        LogHistogram waiting = new LogHistogram();
+
+        SchedulerStats.Probe probe = SchedulerStats.ENABLED ? SchedulerStats.start(policy.getName(), policy) : null;
+        IoQueue io = new IoQueue();
+        boolean more = arrivals.advance();
+        int now = 0, ready = 0;
+        int last = -1;          // slot that ran last, -1 once its process left
+        long admitted = 0, completed = 0, busy = 0;
+        int untilCheck = CHECK_INTERVAL;
+        while (now < horizon) {
+            if (--untilCheck == 0) {
+                untilCheck = CHECK_INTERVAL;
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                monitor.progress(now, (int) Math.min(completed, Integer.MAX_VALUE), (int) Math.min(admitted, Integer.MAX_VALUE));
+                if (SchedulerStats.ENABLED) probe.publish();
+            }
+            while (more && arrivals.arrival() <= now) {
+                policy.onArrival(admit(arrivals, table), now);
+                window.arrival();
+                ready++;
+                admitted++;
+                more = arrivals.advance();
+            }
+            while (!io.isEmpty() && io.peekTime() <= now) {
+                policy.onWake(io.poll(), now);
+                ready++;
+            }
+
+            if (!policy.hasReady()) {
+                int next = (int) Math.min(nextEvent(arrivals, more, io), horizon);
+                window.advance(next, false, 0);
+                if (SchedulerStats.ENABLED) probe.idle(next - now);
+                now = next;
+                continue;
+            }
+
+            long decisionStart = SchedulerStats.ENABLED ? System.nanoTime() : 0;
+            int p = policy.selectNext(now);
+            ready--;
+            if (table.start[p] < 0) table.start[p] = now;
+            int run = Math.min(policy.timeSlice(p), table.remaining[p]);
+            if (SchedulerStats.ENABLED) probe.dispatch(p, p != last, ready, System.nanoTime() - decisionStart);
+            last = p;
+            if (policy.isPreemptive()) {
+                run = (int) Math.min(run, nextEvent(arrivals, more, io) - now);
+            }
+            run = Math.min(run, horizon - now);
+            table.remaining[p] -= run;
+            int end = now + run;
+            busy += run;
+
+            // Arrivals during the slice count toward the queue from their arrival time
+            while (more && arrivals.arrival() <= end) {
+                window.advance(arrivals.arrival(), true, ready);
+                policy.onArrival(admit(arrivals, table), end);
+                window.arrival();
+                ready++;
+                admitted++;
+                more = arrivals.advance();
+            }
+            window.advance(end, true, ready);
+            // Then the processes whose I/O ended, in the order SimulationEngine hands them over
+            while (!io.isEmpty() && io.peekTime() <= end) {
+                policy.onWake(io.poll(), end);
+                ready++;
+            }
+            now = end;
+
+            if (table.remaining[p] > 0) {
+                policy.onPreempt(p, now);
+                ready++;
+                continue;
+            }
+            int ioTime = table.nextIo(p);
+            if (ioTime >= 0) {
+                policy.onBlock(p, now);
+                io.add((int) Math.min((long) now + ioTime, Integer.MAX_VALUE), p);
+            } else {
+                int turnaround = now - table.arrival[p];
+                int wait = turnaround - table.burst[p] - table.ioTime(p);
+                window.completion(turnaround, wait);
+                latency.record(turnaround);
+                waiting.record(wait);
+                completed++;
+                policy.onComplete(p, now);
+                table.release(p);
+                last = -1;
+            }
+        }
+        monitor.progress(now, (int) Math.min(completed, Integer.MAX_VALUE), (int) Math.min(admitted, Integer.MAX_VALUE));
+        if (SchedulerStats.ENABLED) probe.finish((int) Math.min(admitted, Integer.MAX_VALUE), now);
+
+        return new StreamingResult(policy.getName(), horizon, admitted, completed, busy, table.size(), latency, waiting);
+    }
+
+    // Takes the stream's current process into a free slot of the table
+    private static int admit(ArrivalStream arrivals, ProcessTable table) {
+        int[] bursts = arrivals.bursts();
+        int p = bursts == null ? table.allocate(arrivals.arrival(), arrivals.burst())
+                : table.allocate(arrivals.arrival(), bursts);
+        if (arrivals.nice() != 0) table.setNice(p, arrivals.nice());
+        if (arrivals.priority() != 0) table.setPriority(p, arrivals.priority());
+        return p;
+    }
+
+    // Next arrival or I/O completion, Long.MAX_VALUE when there is none
+    private static long nextEvent(ArrivalStream arrivals, boolean more, IoQueue io) {
+        long event = more ? arrivals.arrival() : Long.MAX_VALUE;
+        if (!io.isEmpty()) event = Math.min(event, io.peekTime());
+        return event;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Totals of a {@link StreamingEngine} run. Processes still in the system at
+ * the horizon count as admitted but not completed.
+ */
+public class StreamingResult {
+    private final String algorithm;
+    private final int horizon;
+    private final long admitted;
+    private final long completed;
+    private final long busy;
+    private final int peakInSystem;
+    private final LogHistogram latency;
+    private final LogHistogram waiting;
+
+    StreamingResult(String algorithm, int horizon, long admitted, long completed, long busy, int peakInSystem,
+                    LogHistogram latency, LogHistogram waiting) {
+        this.algorithm = algorithm;
+        this.horizon = horizon;
+        this.admitted = admitted;
+        this.completed = completed;
+        this.busy = busy;
+        this.peakInSystem = peakInSystem;
+        this.latency = latency;
+        this.waiting = waiting;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getInSystem() {
+        return admitted - completed;
+    }
+
+    // Table slots ever used, i.e. the most processes in the system at once
+    public int getPeakInSystem() {
+        return peakInSystem;
+    }
+
+    public double utilization() {
+        return (double) busy / horizon;
+    }
+
+    public double throughput() {
+        return (double) completed / horizon;
+    }
+
+    // Turnaround times of all completed processes
+    public LogHistogram getLatency() {
+        return latency;
+    }
+
+    public LogHistogram getWaiting() {
+        return waiting;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== ").append(algorithm).append(" Streaming (horizon ").append(horizon).append(") ===\n");
+        sb.append("Admitted: ").append(admitted).append('\n');
+        sb.append("Completed: ").append(completed).append('\n');
+        sb.append("In system at horizon: ").append(getInSystem()).append('\n');
+        sb.append("Peak in system: ").append(peakInSystem).append('\n');
+        sb.append(String.format("Throughput: %.4f per time unit\n", throughput()));
+        sb.append(String.format("Utilization: %.1f %%\n", 100 * utilization()));
+        sb.append(String.format("\nAverage Waiting Time: %.2f\n", waiting.mean()));
+        sb.append(String.format("Average Turnaround Time: %.2f\n", latency.mean()));
+        sb.append(String.format("Turnaround p50/p90/p99/p99.9/max: %d / %d / %d / %d / %d\n", latency.percentile(50),
+                latency.percentile(90), latency.percentile(99), latency.percentile(99.9), latency.max()));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+}
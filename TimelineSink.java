@@ -0,0 +1,16 @@
+/**
+ * Receives the CPU timeline of a run as (process, start, end) slices, in time
+ * order. Process indices refer to the run's {@link ProcessTable}; idle gaps
+ * are reported with {@link #IDLE}, and context switches with a cost with
+ * {@link #SWITCH}.
+ */
+public interface TimelineSink {
+    int IDLE = -1;
+    int SWITCH = -2;
+
+    void slice(int p, int start, int end);
+
+    // Called once when the run is over
+    default void finish() {
+    }
+}
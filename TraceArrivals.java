@@ -0,0 +1,65 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Replays a CSV trace in the {@link WorkloadReader} layout, I/O sequences,
+ * nice and priority columns included, one row at a time, so the trace can
+ * be far larger than memory. Rows must be sorted by arrival time. Errors
+ * surface as UncheckedIOException, since advance() cannot throw IOException.
+ */
+public class TraceArrivals implements ArrivalStream, Closeable {
+    private final FileChannel channel;
+    private final WorkloadReader.Rows rows;
+    private int arrival;
+
+    public TraceArrivals(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer buf = WorkloadReader.newBuffer();
+        buf.flip();
+        this.rows = new WorkloadReader.Rows(channel, buf, file);
+    }
+
+    @Override
+    public boolean advance() {
+        try {
+            if (!rows.next()) return false;
+            if (rows.arrival < arrival) throw rows.error("arrivals must be sorted by time");
+            arrival = rows.arrival;
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public int arrival() {
+        return arrival;
+    }
+
+    @Override
+    public int burst() {
+        return rows.burst;
+    }
+
+    @Override
+    public int[] bursts() {
+        return rows.bursts;
+    }
+
+    @Override
+    public int nice() {
+        return rows.nice;
+    }
+
+    @Override
+    public int priority() {
+        return rows.priority;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
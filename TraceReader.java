@@ -0,0 +1,200 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Reads a trace written by {@link TraceWriter}. The constructor loads the
+ * header and workload; next() then steps through the events. Decoding works
+ * on a plain byte array refilled from the channel, and allocates nothing per
+ * event.
+ */
+public class TraceReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final ByteBuffer view = ByteBuffer.wrap(buf);
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private final String policy;
+    private final boolean preemptive;
+    private final int switchCost;
+    private final ProcessTable workload;
+
+    private int type = -1;
+    private int time;
+    private int process;
+    private int slice;
+    private long events;
+
+    public TraceReader(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (getInt() != TraceWriter.MAGIC) throw new IOException(file + ": not a scheduler trace");
+            int version = getInt();
+            if (version != TraceWriter.VERSION) throw new IOException(file + ": unsupported trace version " + version);
+            policy = getString();
+            long flags = getVarint();
+            preemptive = (flags & 1) != 0;
+            boolean io = (flags & 2) != 0;
+            boolean nice = (flags & 8) != 0;
+            boolean priority = (flags & 16) != 0;
+            switchCost = (flags & 4) != 0 ? (int) getVarint() : 0;
+            long count = getVarint();
+            if (count > Integer.MAX_VALUE) throw new IOException(file + ": bad process count " + count);
+            workload = new ProcessTable((int) count);
+            long arrival = 0;
+            for (int i = 0; i < count; i++) {
+                String pid = getString();
+                long zigzag = getVarint();
+                arrival += (zigzag >>> 1) ^ -(zigzag & 1);
+                if (pid.isEmpty()) pid = "P" + (i + 1);
+                int p;
+                if (io) {
+                    int[] bursts = new int[(int) getVarint()];
+                    for (int b = 0; b < bursts.length; b++) bursts[b] = (int) getVarint();
+                    p = workload.add(pid, (int) arrival, bursts);
+                } else {
+                    p = workload.add(pid, (int) arrival, (int) getVarint());
+                }
+                if (nice) {
+                    long zigzagNice = getVarint();
+                    workload.setNice(p, (int) ((zigzagNice >>> 1) ^ -(zigzagNice & 1)));
+                }
+                if (priority) workload.setPriority(p, (int) getVarint());
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Name of the policy that was recorded
+    public String getPolicy() {
+        return policy;
+    }
+
+    public boolean isPreemptive() {
+        return preemptive;
+    }
+
+    // Context-switch cost of the recorded run; replays must use the same
+    public int getSwitchCost() {
+        return switchCost;
+    }
+
+    public ProcessTable getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Moves to the next event; false at the END marker. Errors surface as
+     * UncheckedIOException, since the policies that call this cannot throw
+     * IOException.
+     */
+    public boolean next() {
+        try {
+            long head = getVarint();
+            type = (int) (head & 3);
+            if (type == TraceWriter.END) return false;
+            time += (int) (head >>> 2);
+            process = (int) getVarint();
+            if (type == TraceWriter.DISPATCH) slice = (int) getVarint();
+            events++;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // DISPATCH, PREEMPT, COMPLETE or END
+    public int type() {
+        return type;
+    }
+
+    public int time() {
+        return time;
+    }
+
+    public int process() {
+        return process;
+    }
+
+    // Only meaningful for DISPATCH
+    public int slice() {
+        return slice;
+    }
+
+    // Events read so far
+    public long events() {
+        return events;
+    }
+
+    // "DISPATCH P3 at 12 for 4", for mismatch messages
+    public static String describe(ProcessTable table, int type, int p, int time, int slice) {
+        switch (type) {
+            case TraceWriter.DISPATCH:
+                return "dispatch " + table.pid(p) + " at " + time + " for " + slice;
+            case TraceWriter.PREEMPT:
+                return "preempt " + table.pid(p) + " at " + time;
+            case TraceWriter.COMPLETE:
+                return "complete " + table.pid(p) + " at " + time;
+            default:
+                return "end of trace";
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos == limit && !refill()) throw new EOFException(file + ": truncated trace");
+            byte b = buf[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException(file + ": malformed varint");
+    }
+
+    private int getInt() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            if (pos == limit && !refill()) throw new EOFException(file + ": truncated trace");
+            value = value << 8 | (buf[pos++] & 0xFF);
+        }
+        return value;
+    }
+
+    private String getString() throws IOException {
+        int length = (int) getVarint();
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            if (pos == limit && !refill()) throw new EOFException(file + ": truncated trace");
+            bytes[i] = buf[pos++];
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean refill() throws IOException {
+        if (eof) return false;
+        view.clear();
+        int n = channel.read(view);
+        if (n <= 0) {
+            eof = true;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
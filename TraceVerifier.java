@@ -0,0 +1,106 @@
+/**
+ * Wraps a policy and checks every decision it makes against a recorded
+ * trace, failing with IllegalStateException at the first difference. Use it
+ * to confirm that a changed policy or engine still schedules exactly like
+ * the recorded run.
+ */
+public class TraceVerifier implements SchedulingPolicy {
+    private final SchedulingPolicy policy;
+    private final TraceReader trace;
+    private ProcessTable table;
+    private int dispatchTime;
+
+    public TraceVerifier(SchedulingPolicy policy, TraceReader trace) {
+        this.policy = policy;
+        this.trace = trace;
+    }
+
+    // Call after the run: the trace must have no events left
+    public long finish() {
+        if (trace.next()) {
+            throw new IllegalStateException("Run ended before the trace, which continues with "
+                    + TraceReader.describe(table, trace.type(), trace.process(), trace.time(), trace.slice()));
+        }
+        return trace.events();
+    }
+
+    @Override
+    public String getName() {
+        return policy.getName();
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        this.table = table;
+        policy.reset(table);
+    }
+
+    @Override
+    public void onArrival(int p, int now) {
+        policy.onArrival(p, now);
+    }
+
+    @Override
+    public boolean hasReady() {
+        return policy.hasReady();
+    }
+
+    @Override
+    public int readyCount() {
+        return policy.readyCount();
+    }
+
+    @Override
+    public int selectNext(int now) {
+        dispatchTime = now;
+        return policy.selectNext(now);
+    }
+
+    @Override
+    public int timeSlice(int p) {
+        int slice = policy.timeSlice(p);
+        check(TraceWriter.DISPATCH, p, dispatchTime, slice);
+        return slice;
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return policy.isPreemptive();
+    }
+
+    @Override
+    public void onPreempt(int p, int now) {
+        check(TraceWriter.PREEMPT, p, now, 0);
+        policy.onPreempt(p, now);
+    }
+
+    @Override
+    public void onComplete(int p, int now) {
+        check(TraceWriter.COMPLETE, p, now, 0);
+        policy.onComplete(p, now);
+    }
+
+    @Override
+    public void onBlock(int p, int now) {
+        check(TraceWriter.COMPLETE, p, now, 0);
+        policy.onBlock(p, now);
+    }
+
+    @Override
+    public void onWake(int p, int now) {
+        policy.onWake(p, now);
+    }
+
+    private void check(int type, int p, int now, int slice) {
+        boolean more = trace.next();
+        if (more && trace.type() == type && trace.process() == p && trace.time() == now
+                && (type != TraceWriter.DISPATCH || trace.slice() == slice)) {
+            return;
+        }
+        String expected = more
+                ? TraceReader.describe(table, trace.type(), trace.process(), trace.time(), trace.slice())
+                : "end of trace";
+        throw new IllegalStateException("Mismatch at event " + (trace.events() + (more ? 0 : 1)) + ": expected "
+                + expected + ", got " + TraceReader.describe(table, type, p, now, slice));
+    }
+}
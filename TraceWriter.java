@@ -0,0 +1,167 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Writes a run to a compact binary trace: the workload first, then every
+ * dispatch, preemption and completion. {@link RecordingPolicy} feeds it;
+ * {@link TraceReader} reads it back.
+ *
+ * Layout, with all numbers as unsigned LEB128 varints unless noted:
+ * <pre>
+ * header:   int magic "CPUT", int version (big-endian), policy name,
+ *           flags (bit 0: preemptive, bit 1: I/O bursts, bit 2: switch cost follows,
+ *           bit 3: nice values, bit 4: priorities), [switch cost]
+ * workload: count, then per process: pid, zigzag arrival delta to the previous process,
+ *           burst, or with I/O the number of bursts and the CPU, I/O, CPU, ... times,
+ *           then with nice values the zigzag nice, then with priorities the priority
+ * events:   (time delta << 2 | type), then process, then for DISPATCH the time slice
+ * end:      a single END event (type 3) without process
+ * </pre>
+ * Strings are a byte length and UTF-8; a pid of length 0 stands for "P" + (index + 1).
+ * Event times are deltas to the previous event, so a typical event takes
+ * two or three bytes. A CPU burst followed by I/O ends with a COMPLETE event
+ * like the last one; the engine's I/O wake-ups follow from the workload.
+ */
+public class TraceWriter implements Closeable {
+    public static final int MAGIC = 0x43505554; // "CPUT"
+    public static final int VERSION = 1;
+
+    public static final int DISPATCH = 0;
+    public static final int PREEMPT = 1;
+    public static final int COMPLETE = 2;
+    public static final int END = 3;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final ByteBuffer view = ByteBuffer.wrap(buf);
+    private int pos;
+    private int lastTime;
+    private long events;
+    private boolean closed;
+
+    public TraceWriter(Path file, ProcessTable workload, String policy, boolean preemptive) throws IOException {
+        this(file, workload, policy, preemptive, 0);
+    }
+
+    public TraceWriter(Path file, ProcessTable workload, String policy, boolean preemptive, int switchCost)
+            throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putString(policy);
+            putVarint((preemptive ? 1 : 0) | (workload.hasIo() ? 2 : 0) | (switchCost > 0 ? 4 : 0)
+                    | (workload.hasNice() ? 8 : 0) | (workload.hasPriority() ? 16 : 0));
+            if (switchCost > 0) putVarint(switchCost);
+            putVarint(workload.size());
+            int previous = 0;
+            for (int i = 0; i < workload.size(); i++) {
+                String pid = workload.pid(i);
+                putString(pid.equals("P" + (i + 1)) ? "" : pid);
+                long delta = (long) workload.arrival(i) - previous;
+                putVarint((delta << 1) ^ (delta >> 63));
+                if (workload.hasIo()) {
+                    int[] bursts = workload.bursts(i);
+                    putVarint(bursts.length);
+                    for (int b : bursts) putVarint(b);
+                } else {
+                    putVarint(workload.burst(i));
+                }
+                if (workload.hasNice()) {
+                    int nice = workload.nice(i);
+                    putVarint((nice << 1) ^ (nice >> 31));
+                }
+                if (workload.hasPriority()) putVarint(workload.priority(i));
+                previous = workload.arrival(i);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void dispatch(int p, int time, int slice) {
+        event(DISPATCH, p, time);
+        putVarintUnchecked(slice);
+    }
+
+    public void preempt(int p, int time) {
+        event(PREEMPT, p, time);
+    }
+
+    public void complete(int p, int time) {
+        event(COMPLETE, p, time);
+    }
+
+    // Events written so far, without the END marker
+    public long events() {
+        return events;
+    }
+
+    // Writes the END marker and closes the file
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            putVarint(END);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void event(int type, int p, int time) {
+        if (time < lastTime) throw new IllegalStateException("Trace events must be in time order");
+        putVarintUnchecked((long) (time - lastTime) << 2 | type);
+        putVarintUnchecked(p);
+        lastTime = time;
+        events++;
+    }
+
+    private void putVarintUnchecked(long value) {
+        try {
+            putVarint(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putVarint(long value) throws IOException {
+        if (pos > BUFFER_SIZE - 10) flush();
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    private void putInt(int value) throws IOException {
+        if (pos > BUFFER_SIZE - 4) flush();
+        buf[pos++] = (byte) (value >>> 24);
+        buf[pos++] = (byte) (value >>> 16);
+        buf[pos++] = (byte) (value >>> 8);
+        buf[pos++] = (byte) value;
+    }
+
+    private void putString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        for (byte b : bytes) {
+            if (pos == BUFFER_SIZE) flush();
+            buf[pos++] = b;
+        }
+    }
+
+    private void flush() throws IOException {
+        view.clear().limit(pos);
+        while (view.hasRemaining()) channel.write(view);
+        pos = 0;
+    }
+}
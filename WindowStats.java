@@ -0,0 +1,43 @@
+/**
+ * Metrics of one sliding window of a {@link StreamingEngine} run, covering
+ * the time span [end - length, end). Latencies are turnaround times of the
+ * processes that finished inside the window.
+ */
+public class WindowStats {
+    public static final String HEADER = String.format("%-12s %-8s %-8s %-12s %-8s %-10s %-8s %-8s %-8s %-8s",
+            "Time", "Arrived", "Done", "Throughput", "Queue", "Util %", "p50", "p90", "p99", "Max");
+
+    public final long end;
+    public final long length;
+    public final long arrivals;
+    public final long completions;
+    public final double throughput;     // completions per time unit
+    public final double queueLength;    // time-averaged number of ready processes
+    public final double utilization;    // fraction of the window the CPU was busy
+    public final double meanWaiting;
+    public final int p50Latency, p90Latency, p99Latency, maxLatency;
+
+    WindowStats(long end, long length, long arrivals, long completions, long busy, long queueArea,
+                long waitingSum, LogHistogram latency) {
+        this.end = end;
+        this.length = length;
+        this.arrivals = arrivals;
+        this.completions = completions;
+        this.throughput = (double) completions / length;
+        this.queueLength = (double) queueArea / length;
+        this.utilization = (double) busy / length;
+        this.meanWaiting = completions == 0 ? 0 : (double) waitingSum / completions;
+        this.p50Latency = latency.percentile(50);
+        this.p90Latency = latency.percentile(90);
+        this.p99Latency = latency.percentile(99);
+        this.maxLatency = latency.max();
+    }
+
+    // One row under HEADER
+    @Override
+    public String toString() {
+        return String.format("%-12d %-8d %-8d %-12.4f %-8.2f %-10.1f %-8d %-8d %-8d %-8d",
+                end, arrivals, completions, throughput, queueLength, 100 * utilization,
+                p50Latency, p90Latency, p99Latency, maxLatency);
+    }
+}
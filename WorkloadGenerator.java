@@ -0,0 +1,188 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded synthetic workloads for stress tests and benchmarks.
+ *
+ * Arrivals are POISSON (exponential gaps at the given rate) or BURSTY
+ * (batches of geometrically distributed size arriving together, with the
+ * same long-run rate). Bursts are EXPONENTIAL, PARETO (heavy tailed) or
+ * BIMODAL (mostly short jobs plus a few much longer ones), all with the
+ * given mean and at least 1.
+ *
+ * Processes are drawn in chunks, each from its own SplittableRandom split
+ * off the seed in order, so generate() fills the chunks on all cores and
+ * still returns the same workload for the same seed whatever the core
+ * count. Arrival times are summed in fixed point for the same reason.
+ * stream() walks the same chunks one process at a time, producing the same
+ * processes as generate() without ever holding them all.
+ */
+public class WorkloadGenerator {
+    public enum Arrivals { POISSON, BURSTY }
+
+    public enum Bursts { EXPONENTIAL, PARETO, BIMODAL }
+
+    private static final int CHUNK = 1 << 16;
+    private static final int TIME_SHIFT = 20;   // arrival times in 1/2^20 time units
+    private static final double TICKS = 1 << TIME_SHIFT;
+
+    private final long seed;
+    private Arrivals arrivals = Arrivals.POISSON;
+    private Bursts bursts = Bursts.EXPONENTIAL;
+    private double rate = 0.1;
+    private double meanBurst = 10;
+    private double batchSize = 8;
+    private double paretoShape = 1.5;
+    private double longFraction = 0.1;
+    private double longFactor = 20;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public WorkloadGenerator setArrivals(Arrivals arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    public WorkloadGenerator setBursts(Bursts bursts) {
+        this.bursts = bursts;
+        return this;
+    }
+
+    // Mean arrivals per time unit
+    public WorkloadGenerator setRate(double rate) {
+        if (!(rate > 0)) throw new IllegalArgumentException("Arrival rate must be > 0");
+        this.rate = rate;
+        return this;
+    }
+
+    public WorkloadGenerator setMeanBurst(double meanBurst) {
+        if (!(meanBurst >= 1)) throw new IllegalArgumentException("Mean burst must be >= 1");
+        this.meanBurst = meanBurst;
+        return this;
+    }
+
+    // Mean processes per batch for BURSTY arrivals
+    public WorkloadGenerator setBatchSize(double batchSize) {
+        if (!(batchSize >= 1)) throw new IllegalArgumentException("Batch size must be >= 1");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    // Tail index for PARETO bursts; smaller is heavier, and the mean needs > 1
+    public WorkloadGenerator setParetoShape(double paretoShape) {
+        if (!(paretoShape > 1)) throw new IllegalArgumentException("Pareto shape must be > 1");
+        this.paretoShape = paretoShape;
+        return this;
+    }
+
+    // BIMODAL bursts: this fraction of the processes runs longFactor times longer than the rest
+    public WorkloadGenerator setBimodal(double longFraction, double longFactor) {
+        if (!(longFraction > 0 && longFraction < 1)) throw new IllegalArgumentException("Long fraction must be in (0, 1)");
+        if (!(longFactor >= 1)) throw new IllegalArgumentException("Long factor must be >= 1");
+        this.longFraction = longFraction;
+        this.longFactor = longFactor;
+        return this;
+    }
+
+    // count processes, unnamed (P1..Pn), in arrival order
+    public ProcessTable generate(int count) {
+        if (count < 0) throw new IllegalArgumentException("Process count must be >= 0");
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) randoms[c] = root.split();
+
+        long[] time = new long[count];
+        int[] burst = new int[count];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = randoms[c];
+            for (int i = c * CHUNK, end = Math.min(count, i + CHUNK); i < end; i++) {
+                time[i] = nextGap(random);
+                burst[i] = nextBurst(random);
+            }
+        });
+        Arrays.parallelPrefix(time, Long::sum);
+
+        ProcessTable table = new ProcessTable(count);
+        for (int i = 0; i < count; i++) {
+            long arrival = time[i] >> TIME_SHIFT;
+            if (arrival >= Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Arrivals pass " + Integer.MAX_VALUE + " time units; raise the rate or lower the count");
+            }
+            table.add((int) arrival, burst[i]);
+        }
+        return table;
+    }
+
+    // The same processes as generate(), one at a time, until arrival times run out of int range
+    public ArrivalStream stream() {
+        return new ArrivalStream() {
+            private final SplittableRandom root = new SplittableRandom(seed);
+            private SplittableRandom random;
+            private int leftInChunk;
+            private long time;
+            private int arrival;
+            private int burst;
+
+            @Override
+            public boolean advance() {
+                if (leftInChunk == 0) {
+                    random = root.split();
+                    leftInChunk = CHUNK;
+                }
+                leftInChunk--;
+                time += nextGap(random);
+                if (time >> TIME_SHIFT >= Integer.MAX_VALUE) return false;
+                arrival = (int) (time >> TIME_SHIFT);
+                burst = nextBurst(random);
+                return true;
+            }
+
+            @Override
+            public int arrival() {
+                return arrival;
+            }
+
+            @Override
+            public int burst() {
+                return burst;
+            }
+        };
+    }
+
+    // Gap to the previous arrival in ticks
+    private long nextGap(SplittableRandom random) {
+        double gap;
+        if (arrivals == Arrivals.POISSON) {
+            gap = exponential(random, 1 / rate);
+        } else {
+            // A batch continues with probability 1 - 1/batchSize; batches start batchSize / rate apart
+            gap = random.nextDouble() * batchSize < 1 ? exponential(random, batchSize / rate) : 0;
+        }
+        return (long) Math.min(gap * TICKS, Long.MAX_VALUE >> 2);
+    }
+
+    private int nextBurst(SplittableRandom random) {
+        double burst;
+        switch (bursts) {
+            case PARETO:
+                double minimum = meanBurst * (paretoShape - 1) / paretoShape;
+                burst = minimum / Math.pow(1.0 - random.nextDouble(), 1.0 / paretoShape);
+                break;
+            case BIMODAL:
+                double shortMean = meanBurst / (1 - longFraction + longFraction * longFactor);
+                boolean longJob = random.nextDouble() < longFraction;
+                burst = exponential(random, longJob ? shortMean * longFactor : shortMean);
+                break;
+            default:
+                burst = exponential(random, meanBurst);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(burst)));
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1.0 - random.nextDouble());
+    }
+}
@@ -0,0 +1,293 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Loads a workload file into a {@link ProcessTable} through a buffered NIO
+ * channel, parsing bytes in place instead of going through per-line Strings.
+ *
+ * Two formats are understood:
+ * <ul>
+ *   <li>CSV: one "pid,arrival,burst" row per line. A header row (a first row
+ *       naming its columns), blank lines and lines starting with '#' are
+ *       skipped. The burst can be a ';'-separated sequence of CPU, I/O,
+ *       CPU, ... times, e.g. "5;3;4".
+ *       Optional fourth and fifth columns hold the nice value (-20 to 19)
+ *       and the priority (0 and up, lower runs first).</li>
+ *   <li>Binary: the magic "CPUW", an int version (1), an int record count,
+ *       then (int arrival, int burst) per process, big-endian. PIDs are
+ *       implied as P1..Pn.</li>
+ * </ul>
+ */
+public class WorkloadReader {
+    public static final int MAGIC = 0x43505557; // "CPUW"
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public static ProcessTable read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = newBuffer();
+            channel.read(buf);
+            buf.flip();
+            if (buf.remaining() >= 4 && buf.getInt(0) == MAGIC) {
+                return readBinary(channel, buf, file);
+            }
+            return readCsv(channel, buf, file);
+        }
+    }
+
+    public static void writeBinary(ProcessTable table, Path file) throws IOException {
+        if (table.hasIo()) throw new IllegalArgumentException("The binary workload format has no I/O bursts; use CSV");
+        if (table.hasNice()) throw new IllegalArgumentException("The binary workload format has no nice values; use CSV");
+        if (table.hasPriority()) throw new IllegalArgumentException("The binary workload format has no priorities; use CSV");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = newBuffer();
+            buf.putInt(MAGIC).putInt(VERSION).putInt(table.size());
+            for (int i = 0; i < table.size(); i++) {
+                if (buf.remaining() < 8) drain(channel, buf);
+                buf.putInt(table.arrival(i)).putInt(table.burst(i));
+            }
+            drain(channel, buf);
+        }
+    }
+
+    private static ProcessTable readBinary(FileChannel channel, ByteBuffer buf, Path file) throws IOException {
+        if (buf.remaining() < 12) throw new IOException(file + ": truncated header");
+        buf.getInt();
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException(file + ": unsupported workload version " + version);
+        int count = buf.getInt();
+        if (count < 0) throw new IOException(file + ": bad record count " + count);
+
+        ProcessTable table = new ProcessTable(count);
+        for (int i = 0; i < count; i++) {
+            if (buf.remaining() < 8 && !refill(channel, buf, 8)) {
+                throw new IOException(file + ": expected " + count + " records, found " + i);
+            }
+            int arrival = buf.getInt();
+            int burst = buf.getInt();
+            if (arrival < 0 || burst < 0) {
+                throw new IOException(file + ": record " + (i + 1) + ": arrival and burst must be non-negative");
+            }
+            table.add(arrival, burst);
+        }
+        return table;
+    }
+
+    private static ProcessTable readCsv(FileChannel channel, ByteBuffer buf, Path file) throws IOException {
+        ProcessTable table = new ProcessTable((int) Math.min(channel.size() / 12, 1 << 20));
+        Rows rows = new Rows(channel, buf, file);
+        while (rows.next()) {
+            int i = rows.bursts == null
+                    ? table.add(rows.pid(), rows.arrival, rows.burst)
+                    : table.add(rows.pid(), rows.arrival, rows.bursts);
+            if (rows.nice != 0) table.setNice(i, rows.nice);
+            if (rows.priority != 0) table.setPriority(i, rows.priority);
+        }
+        return table;
+    }
+
+    // Buffer for a Rows reader of a file opened elsewhere
+    static ByteBuffer newBuffer() {
+        return ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * The CSV rows of a file, one process at a time, so that a caller can
+     * stream a file of any size (see TraceArrivals). After next() the fields
+     * describe the current row.
+     */
+    static final class Rows {
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+        private final Path file;
+        private byte[] pid = new byte[64];
+        private int pidLength;
+        private long line;
+        private boolean eof;
+        private boolean firstRow = true;
+
+        int arrival;
+        int burst;          // total CPU time
+        int[] bursts;       // CPU, I/O, CPU, ... times, or null for a single burst
+        int nice;
+        int priority;
+
+        // buf holds what was already read from the channel, ready to get
+        Rows(FileChannel channel, ByteBuffer buf, Path file) {
+            this.channel = channel;
+            this.buf = buf;
+            this.file = file;
+        }
+
+        // Moves to the next process; false at end of file
+        boolean next() throws IOException {
+            while (true) {
+                // Make sure a whole line is buffered, or take what is left at end of file
+                int eol = indexOf(buf, (byte) '\n');
+                if (eol < 0 && !eof) {
+                    eof = !refill(channel, buf, buf.capacity());
+                    eol = indexOf(buf, (byte) '\n');
+                    if (eol < 0 && !eof) throw new IOException(file + ": line " + (line + 1) + " is too long");
+                }
+                if (eol < 0) {
+                    if (!buf.hasRemaining()) return false;
+                    eol = buf.limit();
+                }
+                line++;
+
+                int pos = buf.position();
+                int end = eol;
+                if (end > pos && buf.get(end - 1) == '\r') end--;
+                buf.position(Math.min(eol + 1, buf.limit()));
+
+                pos = skipSpaces(buf, pos, end);
+                if (pos == end || buf.get(pos) == '#') continue;
+                if (parse(pos, end)) return true;
+            }
+        }
+
+        String pid() {
+            return new String(pid, 0, pidLength, StandardCharsets.UTF_8);
+        }
+
+        IOException error(String message) {
+            return new IOException(file + ": line " + line + ": " + message);
+        }
+
+        // Parses the row between pos and end; false for a header row
+        private boolean parse(int pos, int end) throws IOException {
+            int comma = indexOf(buf, pos, end, (byte) ',');
+            if (comma < 0) throw error("expected pid,arrival,burst");
+            int pidEnd = comma;
+            while (pidEnd > pos && buf.get(pidEnd - 1) == ' ') pidEnd--;
+            pidLength = pidEnd - pos;
+            if (pidLength > pid.length) pid = new byte[pidLength];
+            for (int i = 0; i < pidLength; i++) pid[i] = buf.get(pos + i);
+
+            int comma2 = indexOf(buf, comma + 1, end, (byte) ',');
+            if (comma2 < 0) throw error("expected pid,arrival,burst");
+            long arrival = parseInt(buf, comma + 1, comma2);
+            int burstEnd = indexOf(buf, comma2 + 1, end, (byte) ',');
+            if (burstEnd < 0) burstEnd = end;
+            int semicolon = indexOf(buf, comma2 + 1, burstEnd, (byte) ';');
+            long burst = semicolon < 0 ? parseInt(buf, comma2 + 1, burstEnd) : parseInt(buf, comma2 + 1, semicolon);
+            long nice = 0, priority = 0;
+            if (burstEnd < end) {
+                int niceEnd = indexOf(buf, burstEnd + 1, end, (byte) ',');
+                if (niceEnd < 0) niceEnd = end;
+                // Empty optional columns keep the default 0
+                if (!isBlank(buf, burstEnd + 1, niceEnd)) nice = parseSignedInt(buf, burstEnd + 1, niceEnd);
+                if (niceEnd < end) {
+                    int priorityEnd = indexOf(buf, niceEnd + 1, end, (byte) ',');
+                    if (priorityEnd < 0) priorityEnd = end;
+                    if (!isBlank(buf, niceEnd + 1, priorityEnd)) priority = parseInt(buf, niceEnd + 1, priorityEnd);
+                }
+            }
+
+            boolean header = firstRow;
+            firstRow = false;
+            if (arrival < 0 || burst < 0 || nice == Long.MIN_VALUE || priority < 0) {
+                // Only a first row whose arrival and burst are words, like "pid,arrival,burst"
+                if (header && isWord(buf, comma + 1, comma2) && isWord(buf, comma2 + 1, burstEnd)) return false;
+                if (nice == Long.MIN_VALUE) throw error("nice must be an integer");
+                if (priority < 0) throw error("priority must be a non-negative integer");
+                throw error("arrival and burst must be non-negative integers");
+            }
+            if (nice < ProcessTable.MIN_NICE || nice > ProcessTable.MAX_NICE) {
+                throw error("nice must be between " + ProcessTable.MIN_NICE + " and " + ProcessTable.MAX_NICE);
+            }
+            this.arrival = (int) arrival;
+            this.nice = (int) nice;
+            this.priority = (int) priority;
+            if (semicolon < 0) {
+                this.burst = (int) burst;
+                this.bursts = null;
+                return true;
+            }
+            // CPU;I/O;CPU;... sequence, rare enough to parse the slow way
+            String[] parts = StandardCharsets.US_ASCII.decode(buf.duplicate().limit(burstEnd).position(comma2 + 1))
+                    .toString().split(";");
+            int[] bursts = new int[parts.length];
+            try {
+                for (int b = 0; b < parts.length; b++) bursts[b] = Integer.parseInt(parts[b].trim());
+                this.burst = bursts.length == 1 ? bursts[0] : ProcessTable.cpuTime(bursts);
+            } catch (IllegalArgumentException ex) {
+                throw error("bad burst sequence: " + ex.getMessage());
+            }
+            this.bursts = bursts.length == 1 ? null : bursts;
+            return true;
+        }
+    }
+
+    // Parses a non-negative int between from and to, ignoring spaces; -1 if malformed
+    private static long parseInt(ByteBuffer buf, int from, int to) {
+        from = skipSpaces(buf, from, to);
+        while (to > from && buf.get(to - 1) == ' ') to--;
+        if (from == to) return -1;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) return -1;
+        }
+        return value;
+    }
+
+    // Like parseInt, with an optional '-' sign; Long.MIN_VALUE if malformed
+    private static long parseSignedInt(ByteBuffer buf, int from, int to) {
+        from = skipSpaces(buf, from, to);
+        boolean negative = from < to && buf.get(from) == '-';
+        long value = parseInt(buf, negative ? from + 1 : from, to);
+        if (value < 0) return Long.MIN_VALUE;
+        return negative ? -value : value;
+    }
+
+    // Starts with a letter, as a column name does
+    private static boolean isWord(ByteBuffer buf, int from, int to) {
+        from = skipSpaces(buf, from, to);
+        return from < to && Character.isLetter(buf.get(from));
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int from, int to) {
+        return skipSpaces(buf, from, to) == to;
+    }
+
+    private static int skipSpaces(ByteBuffer buf, int from, int to) {
+        while (from < to && (buf.get(from) == ' ' || buf.get(from) == '\t')) from++;
+        return from;
+    }
+
+    private static int indexOf(ByteBuffer buf, byte b) {
+        return indexOf(buf, buf.position(), buf.limit(), b);
+    }
+
+    private static int indexOf(ByteBuffer buf, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == b) return i;
+        }
+        return -1;
+    }
+
+    // Compacts the buffer and reads until it holds at least min bytes; false at end of file
+    private static boolean refill(FileChannel channel, ByteBuffer buf, int min) throws IOException {
+        buf.compact();
+        int read = 0;
+        while (buf.position() < min && (read = channel.read(buf)) >= 0) {
+        }
+        buf.flip();
+        return read >= 0;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+}
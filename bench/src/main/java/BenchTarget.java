@@ -0,0 +1,62 @@
+import java.util.function.IntSupplier;
+
+/**
+ * One benchmark configuration: a generated workload plus the algorithm to run
+ * on it. Lives in the default package next to the simulator, because JMH
+ * benchmarks must be in a named package and cannot see default-package
+ * classes directly; benchmarks.SchedulerBenchmark creates it reflectively.
+ *
+ * Each getAsInt() call is one full simulation and returns its makespan.
+ */
+public class BenchTarget implements IntSupplier {
+    private static final int QUANTUM = 4;
+    private static final int[] MLFQ_QUANTA = {2, 4, 8, 16};
+    private static final double MEAN_BURST = 10;
+
+    private final ProcessTable table;
+    private final String algorithm;
+    private final SimulationEngine engine = new SimulationEngine();
+
+    public BenchTarget(String algorithm, String bursts, String arrivals, int size, long seed) {
+        this.algorithm = algorithm;
+        this.table = generate(bursts, arrivals, size, seed);
+        PolicyRegistry.create(algorithm, params()); // fail fast on a bad name
+    }
+
+    @Override
+    public int getAsInt() {
+        SchedulingPolicy policy = PolicyRegistry.create(algorithm, params());
+        return engine.run(table, policy, NullTimelineSink.INSTANCE).getMakespan();
+    }
+
+    private static PolicyParams params() {
+        return new PolicyParams().setQuantum(QUANTUM).setMlfqQuanta(MLFQ_QUANTA);
+    }
+
+    /*
+     * bursts:   EXPONENTIAL, PARETO (shape 1.5) or BIMODAL (10% of jobs 20x
+     *           longer), all with mean 10; see WorkloadGenerator
+     * arrivals: DENSE    Poisson at 120% load, so the ready queue keeps growing
+     *           SPARSE   Poisson at 10% load, mostly idle
+     *           BURSTY   batches of 8 on average at 90% load
+     */
+    static ProcessTable generate(String bursts, String arrivals, int size, long seed) {
+        WorkloadGenerator generator = new WorkloadGenerator(seed)
+                .setBursts(WorkloadGenerator.Bursts.valueOf(bursts))
+                .setMeanBurst(MEAN_BURST);
+        switch (arrivals) {
+            case "DENSE":
+                generator.setRate(1.2 / MEAN_BURST);
+                break;
+            case "SPARSE":
+                generator.setRate(0.1 / MEAN_BURST);
+                break;
+            case "BURSTY":
+                generator.setArrivals(WorkloadGenerator.Arrivals.BURSTY).setBatchSize(8).setRate(0.9 / MEAN_BURST);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown arrival pattern: " + arrivals);
+        }
+        return generator.generate(size);
+    }
+}
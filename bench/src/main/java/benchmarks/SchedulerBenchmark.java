@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Full simulation runs of every algorithm across workload sizes and shapes.
+ *
+ * Throughput is reported twice: runs per second (the benchmark itself) and
+ * simulated processes per second (the "processes" counter). With -prof gc,
+ * gc.alloc.rate.norm is bytes per run; divide by size for bytes per process.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+
+    @Param({"FIFO", "SJF", "SRTF", "Round Robin", "MLFQ"})
+    public String algorithm;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"EXPONENTIAL", "BIMODAL", "PARETO"})
+    public String bursts;
+
+    @Param({"DENSE", "SPARSE", "BURSTY"})
+    public String arrivals;
+
+    private IntSupplier target;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long processes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        // The simulator is in the default package, which named packages cannot import
+        target = (IntSupplier) Class.forName("BenchTarget")
+                .getConstructor(String.class, String.class, String.class, int.class, long.class)
+                .newInstance(algorithm, bursts, arrivals, size, 42L);
+    }
+
+    @Benchmark
+    public int simulate(Counters counters) {
+        counters.processes += size;
+        return target.getAsInt();
+    }
+}
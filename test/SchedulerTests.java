@@ -0,0 +1,458 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Regression checks for the simulator. There is no test framework in the
+ * build, so this is a plain program:
+ *
+ *     javac -d out *.java test/*.java
+ *     java -ea -cp out SchedulerTests
+ *
+ * Prints one line per check and exits with status 1 if any failed.
+ */
+public class SchedulerTests {
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        matchesPreRefactorScheduler();
+        sjfBreaksTiesByPidString();
+        equalPrioritiesNeverPreempt();
+        agingCountsFromArrival();
+        equalPrioritiesAcrossSteal();
+        oneCpuMatchesSingleEngine();
+        fingerprintCoversPidCharacters();
+        timelineSinksMergeAdjacentSlices();
+        workloadReaderRoundTrips();
+        ringBufferWrapsAndDrains();
+        streamingReusesSlots();
+        histogramIsExactBelow256();
+        traceRoundTrips();
+        generatorIsDeterministic();
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        if (failures > 0) System.exit(1);
+    }
+
+    /*
+     * Per-process waiting/turnaround times and Gantt blocks of the original
+     * list-based Scheduler on a workload with equal bursts, equal arrivals
+     * and an idle gap.
+     */
+    static void matchesPreRefactorScheduler() {
+        golden(new FifoPolicy(),
+                "0/7 5/9 7/8 7/11 11/15 0/3 2/8 8/10",
+                "P1 0-7, P2 7-11, P3 11-12, P4 12-16, P5 16-20, P6 30-33, P7 33-39, P8 39-41");
+        golden(new RoundRobinPolicy(3),
+                "11/18 11/15 5/6 10/14 11/15 0/3 4/10 5/7",
+                "P1 0-3, P2 3-6, P1 6-9, P3 9-10, P4 10-13, P5 13-16, P2 16-17, P1 17-18, P4 18-19, P5 19-20, "
+                        + "P6 30-33, P7 33-36, P8 36-38, P7 38-41");
+        golden(new SjfPolicy(),
+                "0/7 6/10 3/4 7/11 11/15 0/3 4/10 2/4",
+                "P1 0-7, P3 7-8, P2 8-12, P4 12-16, P5 16-20, P6 30-33, P8 33-35, P7 35-41");
+        golden(new SrtfPolicy(),
+                "13/20 1/5 0/1 2/6 6/10 0/3 4/10 2/4",
+                "P1 0-2, P2 2-4, P3 4-5, P2 5-7, P4 7-11, P5 11-15, P1 15-20, P6 30-33, P8 33-35, P7 35-41");
+        golden(new MlfqPolicy(new int[] {2, 4, 8}),
+                "13/20 9/13 0/1 8/12 10/14 4/7 4/10 3/5",
+                "P1 0-2, P2 2-4, P3 4-5, P4 5-7, P5 7-9, P1 9-13, P2 13-15, P4 15-17, P5 17-19, P1 19-20, "
+                        + "P6 30-32, P7 32-34, P8 34-36, P6 36-37, P7 37-41");
+    }
+
+    private static void golden(SchedulingPolicy policy, String times, String blocks) {
+        List<Scheduler.Process> processes = new ArrayList<>();
+        int[] arrival = {0, 2, 4, 5, 5, 30, 31, 31};
+        int[] burst = {7, 4, 1, 4, 4, 3, 6, 2};
+        for (int i = 0; i < arrival.length; i++) processes.add(new Scheduler.Process("P" + (i + 1), arrival[i], burst[i]));
+        Scheduler scheduler = new Scheduler(processes);
+        SimulationResult result = scheduler.run(policy);
+
+        StringJoiner actualTimes = new StringJoiner(" ");
+        for (int p = 0; p < result.size(); p++) actualTimes.add(result.waitingTime(p) + "/" + result.turnaroundTime(p));
+        StringJoiner actualBlocks = new StringJoiner(", ");
+        for (Scheduler.GanttBlock b : scheduler.getGanttBlocks()) {
+            if (!b.pid.equals(Scheduler.IDLE_PID)) actualBlocks.add(b.pid + " " + b.start + "-" + b.end);
+        }
+        check("pre-refactor times: " + policy.getName(), actualTimes.toString().equals(times));
+        check("pre-refactor Gantt blocks: " + policy.getName(), actualBlocks.toString().equals(blocks));
+    }
+
+    // Equal burst and arrival: SJF compares PIDs as strings, so "P10" runs before "P2" despite its later row
+    static void sjfBreaksTiesByPidString() {
+        List<Scheduler.Process> processes = Arrays.asList(
+                new Scheduler.Process("P1", 0, 4),
+                new Scheduler.Process("P2", 1, 3),
+                new Scheduler.Process("P10", 1, 3));
+        SimulationResult result = new Scheduler(processes).run(new SjfPolicy());
+        StringJoiner order = new StringJoiner(" ");
+        for (int p : result.completionOrder()) order.add(result.pid(p));
+        check("SJF ties: PID string order", order.toString().equals("P1 P10 P2"));
+    }
+
+    // With every priority equal, preemptive priority is FIFO
+    static void equalPrioritiesNeverPreempt() {
+        ProcessTable table = new ProcessTable(4);
+        table.add(0, 5);
+        table.add(1, 3);
+        table.add(1, 1);
+        table.add(6, 8);
+        SimulationResult priority = new SimulationEngine().run(table, new PriorityPolicy(true));
+        SimulationResult fifo = new SimulationEngine().run(table, new FifoPolicy());
+        check("equal priorities: no preemption", priority.contextSwitches() == fifo.contextSwitches());
+        check("equal priorities: FIFO order", Arrays.equals(priority.completionOrder(), fifo.completionOrder()));
+    }
+
+    /*
+     * P1 runs 0-20 without preemption. P2 (priority 3) waits from 1 and P3
+     * (priority 1) from 10; with aging every 4 both reach 0 by 20, and P2
+     * arrived first.
+     */
+    static void agingCountsFromArrival() {
+        ProcessTable table = new ProcessTable(3);
+        table.add(0, 20);
+        table.add(1, 5);
+        table.add(10, 5);
+        table.setPriority(1, 3);
+        table.setPriority(2, 1);
+        SimulationResult result = new SimulationEngine().run(table, new PriorityPolicy(false, 4));
+        check("aging from arrival", Arrays.equals(result.completionOrder(), new int[] {0, 1, 2}));
+    }
+
+    /*
+     * Drives two instances the way MultiCoreEngine's work stealing does, all
+     * priorities equal. P1 is stolen from A by B, runs, is preempted into B
+     * and stolen back by A after P2 queued there: it must not reuse its old
+     * place in A. A process preempted on its own instance keeps its place.
+     */
+    static void equalPrioritiesAcrossSteal() {
+        ProcessTable table = new ProcessTable(3);
+        table.add(0, 10);
+        table.add(1, 10);
+        table.add(2, 10);
+        table = table.forRun();
+        PriorityPolicy a = new PriorityPolicy(true);
+        PriorityPolicy b = new PriorityPolicy(true);
+        a.reset(table);
+        b.reset(table);
+
+        a.onArrival(0, 0);
+        int p = a.selectNext(0);            // B steals P1
+        b.timeSlice(p);
+        table.remaining[p]--;
+        a.onArrival(1, 1);
+        b.onPreempt(p, 1);
+        p = b.selectNext(1);                // A steals P1 back, behind P2
+        a.timeSlice(p);
+        table.remaining[p]--;
+        a.onPreempt(p, 2);
+        check("steal: fresh place among equals", a.selectNext(2) == 1);
+
+        a.timeSlice(1);
+        table.remaining[1]--;
+        a.onArrival(2, 3);
+        a.onPreempt(1, 3);
+        check("steal: preempted process keeps its place", a.selectNext(3) == 1);
+    }
+
+    // MultiCoreEngine with 1 CPU schedules exactly like SimulationEngine, for every policy and balancing
+    static void oneCpuMatchesSingleEngine() {
+        PolicyParams params = new PolicyParams().setQuantum(4).setMlfqQuanta(new int[] {2, 4, 8})
+                .setMlfqBoost(50).setAgingInterval(4);
+        List<ProcessTable> workloads = new ArrayList<>();
+        for (long seed = 1; seed <= 8; seed++) {
+            ProcessTable table = new WorkloadGenerator(seed).setRate(0.2).generate(300);
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < table.size(); i++) {
+                table.setPriority(i, random.nextInt(8));
+                table.setNice(i, random.nextInt(40) - 20);
+            }
+            workloads.add(table);
+        }
+        for (String name : PolicyRegistry.names()) {
+            for (MultiCoreEngine.Balancing balancing : MultiCoreEngine.Balancing.values()) {
+                boolean same = true;
+                for (ProcessTable table : workloads) {
+                    SimulationResult single = new SimulationEngine().run(table, PolicyRegistry.create(name, params));
+                    SimulationResult multi = new MultiCoreEngine(1, balancing)
+                            .run(table, () -> PolicyRegistry.create(name, params)).getResult();
+                    for (int p = 0; p < table.size() && same; p++) {
+                        same = single.turnaroundTime(p) == multi.turnaroundTime(p);
+                    }
+                }
+                check("1 CPU matches single CPU: " + name + ", " + balancing, same);
+            }
+        }
+    }
+
+    // "Aa" and "BB" have the same String.hashCode()
+    static void fingerprintCoversPidCharacters() {
+        ProcessTable aa = new ProcessTable();
+        aa.add(new Scheduler.Process("Aa", 0, 5));
+        ProcessTable bb = new ProcessTable();
+        bb.add(new Scheduler.Process("BB", 0, 5));
+        check("fingerprint: colliding hashCode PIDs differ", aa.fingerprint() != bb.fingerprint());
+        ResultCache<String> cache = new ResultCache<>(1 << 20);
+        cache.put(new ResultCache.Key(aa, "FIFO"), "Aa", 1);
+        check("cache: other workload misses", cache.get(new ResultCache.Key(bb, "FIFO")) == null);
+        check("cache: same workload hits", "Aa".equals(cache.get(new ResultCache.Key(aa, "FIFO"))));
+    }
+
+    // Back-to-back slices of one process become one block; a gap, or another process in between, does not
+    static void timelineSinksMergeAdjacentSlices() throws IOException {
+        ProcessTable table = new ProcessTable();
+        table.add("A", 0, 6);
+        table.add("B", 0, 2);
+        Path file = Files.createTempFile("timeline", ".csv");
+        RleTimeline timeline = new RleTimeline(1);
+        try (FileTimelineSink sink = new FileTimelineSink(file, table)) {
+            for (TimelineSink s : new TimelineSink[] {timeline, sink}) {
+                s.slice(0, 0, 2);
+                s.slice(0, 2, 3);
+                s.slice(1, 3, 5);
+                s.slice(0, 5, 6);
+                s.slice(TimelineSink.IDLE, 6, 8);
+                s.slice(TimelineSink.IDLE, 8, 9);
+                s.slice(0, 9, 10);
+                s.slice(0, 11, 12);
+            }
+        }
+        StringJoiner blocks = new StringJoiner(" ");
+        for (int i = 0; i < timeline.size(); i++) blocks.add(timeline.pid(i) + ":" + timeline.start(i) + "-" + timeline.end(i));
+        check("RLE timeline: adjacent slices merged", blocks.toString().equals("0:0-3 1:3-5 0:5-6 -1:6-9 0:9-10 0:11-12"));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Files.delete(file);
+        check("file timeline: merged rows", lines.equals(Arrays.asList("pid,start,end",
+                "A,0,3", "B,3,5", "A,5,6", Scheduler.IDLE_PID + ",6,9", "A,9,10", "A,11,12")));
+    }
+
+    static void workloadReaderRoundTrips() throws IOException {
+        ProcessTable csv = readCsv("pid,arrival,burst,nice,priority\n"
+                + "# comment\n"
+                + "\n"
+                + "P1, 0, 5\r\n"
+                + "P2,3,4;2;6,-5,2\n"
+                + "P3,7,1,,3");
+        check("CSV: header, comment and blank lines skipped", csv.size() == 3 && csv.pid(0).equals("P1"));
+        check("CSV: fields", csv.arrival(1) == 3 && csv.burst(1) == 10 && csv.ioTime(1) == 2
+                && csv.nice(1) == -5 && csv.priority(1) == 2 && csv.nice(2) == 0 && csv.priority(2) == 3);
+        check("CSV: numeric first row is data", readCsv("A,1,2\nB,3,4").size() == 2);
+        check("CSV: bad arrival rejected", rejects("P1,0,5\nP2,x,4"));
+        check("CSV: bad first row rejected", rejects("P1,-1,5"));
+        check("CSV: nice out of range rejected", rejects("P1,0,5,20"));
+        check("CSV: negative priority rejected", rejects("P1,0,5,0,-1"));
+        check("CSV: missing burst rejected", rejects("P1,0"));
+
+        ProcessTable table = new ProcessTable();
+        for (int i = 0; i < 1000; i++) table.add(i * 3, 1 + i % 17);
+        Path file = Files.createTempFile("workload", ".bin");
+        try {
+            WorkloadReader.writeBinary(table, file);
+            ProcessTable binary = WorkloadReader.read(file);
+            boolean same = binary.size() == table.size();
+            for (int i = 0; i < table.size() && same; i++) {
+                same = binary.arrival(i) == table.arrival(i) && binary.burst(i) == table.burst(i)
+                        && binary.pid(i).equals("P" + (i + 1));
+            }
+            check("binary: round trip", same);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+            check("binary: truncated file rejected", rejects(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // Starts the queues mid-array so both the element runs and drainFrom's copies wrap around
+    static void ringBufferWrapsAndDrains() {
+        IntRingBuffer queue = new IntRingBuffer(4);
+        for (int i = 0; i < 3; i++) queue.add(i);
+        queue.poll();
+        queue.poll();
+        for (int i = 3; i < 6; i++) queue.add(i);
+        check("ring buffer: wraparound", queue.toString().equals("[2, 3, 4, 5]"));
+        queue.add(6);
+        check("ring buffer: grows in order", queue.size() == 5 && queue.toString().equals("[2, 3, 4, 5, 6]"));
+
+        IntRingBuffer target = new IntRingBuffer(8);
+        for (int i = 0; i < 6; i++) target.add(-1);
+        for (int i = 0; i < 5; i++) target.poll();
+        target.drainFrom(queue);
+        check("ring buffer: drainFrom appends in order",
+                target.toString().equals("[-1, 2, 3, 4, 5, 6]") && queue.isEmpty());
+        target.drainFrom(queue);
+        for (int i = 7; i < 12; i++) queue.add(i);
+        target.drainFrom(queue);
+        check("ring buffer: drainFrom grows", target.size() == 11 && target.peek() == -1
+                && target.toString().endsWith("6, 7, 8, 9, 10, 11]"));
+    }
+
+    /*
+     * Two processes of burst 3 arrive every 10 time units, so at most two are
+     * in the system and every 10-unit bucket holds 2 arrivals, 2 completions
+     * (turnaround 3 and 6), 6 busy units and 3 units of one process waiting.
+     */
+    static void streamingReusesSlots() {
+        ArrivalStream pairs = new ArrivalStream() {
+            private int next = -1;
+
+            @Override
+            public boolean advance() {
+                return ++next < 2000;
+            }
+
+            @Override
+            public int arrival() {
+                return next / 2 * 10;
+            }
+
+            @Override
+            public int burst() {
+                return 3;
+            }
+        };
+        List<WindowStats> windows = new ArrayList<>();
+        StreamingResult result = new StreamingEngine(new FifoPolicy(), 10, 2).run(pairs, 10_000, windows::add);
+        check("streaming: all processes complete", result.getAdmitted() == 2000 && result.getCompleted() == 2000);
+        check("streaming: finished slots are reused", result.getPeakInSystem() == 2);
+        check("streaming: turnaround histogram", result.getLatency().min() == 3 && result.getLatency().max() == 6
+                && result.getLatency().mean() == 4.5);
+
+        WindowStats first = windows.get(0);
+        check("window: first covers one bucket", first.end == 10 && first.length == 10
+                && first.arrivals == 2 && first.completions == 2);
+        WindowStats w = windows.get(5);
+        check("window: two buckets merged", w.end == 60 && w.length == 20 && w.arrivals == 4 && w.completions == 4);
+        check("window: utilization and queue", w.utilization == 0.6 && w.queueLength == 0.3);
+        check("window: waiting and latency", w.meanWaiting == 1.5 && w.p50Latency == 3 && w.maxLatency == 6);
+    }
+
+    static void histogramIsExactBelow256() {
+        LogHistogram low = new LogHistogram();
+        for (int v = 0; v < 256; v++) low.record(v);
+        boolean exact = true;
+        for (int pct = 1; pct <= 100 && exact; pct++) {
+            exact = low.percentile(pct) == (int) Math.ceil(pct / 100.0 * 256) - 1;
+        }
+        check("histogram: exact below 256", exact && low.min() == 0 && low.max() == 255);
+
+        LogHistogram high = new LogHistogram();
+        for (int v = 1000; v < 2000; v++) high.record(v);
+        int p50 = high.percentile(50);
+        check("histogram: within 1% above 256", Math.abs(p50 - 1499) <= 15);
+
+        LogHistogram merged = new LogHistogram();
+        merged.add(low);
+        merged.add(high);
+        merged.add(new LogHistogram());
+        check("histogram: merge", merged.count() == 1256 && merged.min() == 0 && merged.max() == 1999
+                && merged.percentile(20) == 251 && merged.percentile(100) == 1999
+                && merged.mean() == (255 * 256 / 2 + 1499.5 * 1000) / 1256);
+    }
+
+    // Records a Round Robin run, then replays and verifies it, and checks a changed policy or trace is caught
+    static void traceRoundTrips() throws IOException {
+        ProcessTable table = new WorkloadGenerator(7).setRate(0.2).generate(200);
+        Path file = Files.createTempFile("trace", ".bin");
+        try {
+            SimulationResult recorded;
+            long events;
+            try (TraceWriter writer = new TraceWriter(file, table, "Round Robin", false, 1)) {
+                recorded = new SimulationEngine().setSwitchCost(1)
+                        .run(table, new RecordingPolicy(new RoundRobinPolicy(3), writer));
+                events = writer.events();
+            }
+
+            try (TraceReader trace = new TraceReader(file)) {
+                ProcessTable workload = trace.getWorkload();
+                boolean same = workload.size() == table.size();
+                for (int p = 0; p < table.size() && same; p++) {
+                    same = workload.pid(p).equals(table.pid(p)) && workload.arrival(p) == table.arrival(p)
+                            && workload.burst(p) == table.burst(p);
+                }
+                check("trace: workload and header", same && trace.getSwitchCost() == 1
+                        && trace.getPolicy().equals("Round Robin"));
+                SimulationResult replayed = new SimulationEngine().setSwitchCost(trace.getSwitchCost())
+                        .run(workload, new ReplayPolicy(trace));
+                same = replayed.contextSwitches() == recorded.contextSwitches();
+                for (int p = 0; p < table.size() && same; p++) {
+                    same = replayed.turnaroundTime(p) == recorded.turnaroundTime(p);
+                }
+                check("trace: replay matches the run", same);
+            }
+            check("trace: verifies against the same policy", verify(file, new RoundRobinPolicy(3)) == events);
+            check("trace: other quantum fails verification", verify(file, new RoundRobinPolicy(4)) < 0);
+
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 3] ^= 1;
+            Files.write(file, bytes);
+            check("trace: tampered event fails verification", verify(file, new RoundRobinPolicy(3)) < 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // Events verified, or -1 when the run departs from the trace
+    private static long verify(Path file, SchedulingPolicy policy) throws IOException {
+        try (TraceReader trace = new TraceReader(file)) {
+            TraceVerifier verifier = new TraceVerifier(policy, trace);
+            new SimulationEngine().setSwitchCost(trace.getSwitchCost()).run(trace.getWorkload(), verifier);
+            return verifier.finish();
+        } catch (IllegalStateException ex) {
+            return -1;
+        }
+    }
+
+    // Several chunks, so the parallel fill and the prefix sum of arrival times are covered
+    static void generatorIsDeterministic() {
+        int count = 200_000;
+        WorkloadGenerator poisson = new WorkloadGenerator(42);
+        ProcessTable table = poisson.generate(count);
+        check("generator: same seed, same workload", poisson.generate(count).sameWorkload(table)
+                && new WorkloadGenerator(42).generate(count).fingerprint() == table.fingerprint());
+        check("generator: other seed differs", new WorkloadGenerator(43).generate(count).fingerprint() != table.fingerprint());
+
+        ArrivalStream stream = poisson.stream();
+        boolean same = true;
+        for (int i = 0; i < count && same; i++) {
+            same = stream.advance() && stream.arrival() == table.arrival(i) && stream.burst() == table.burst(i);
+        }
+        check("generator: stream matches generate", same);
+
+        WorkloadGenerator bursty = new WorkloadGenerator(42).setArrivals(WorkloadGenerator.Arrivals.BURSTY)
+                .setBursts(WorkloadGenerator.Bursts.PARETO);
+        check("generator: same seed, bursty and Pareto", bursty.generate(count).sameWorkload(bursty.generate(count)));
+    }
+
+    private static ProcessTable readCsv(String content) throws IOException {
+        Path file = Files.createTempFile("workload", ".csv");
+        try {
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            return WorkloadReader.read(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static boolean rejects(String content) {
+        try {
+            readCsv(content);
+            return false;
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    private static boolean rejects(Path file) {
+        try {
+            WorkloadReader.read(file);
+            return false;
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok    " : "FAIL  ") + name);
+        if (!passed) failures++;
+    }
+}